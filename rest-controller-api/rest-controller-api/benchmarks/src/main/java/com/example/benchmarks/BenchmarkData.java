@@ -0,0 +1,83 @@
+package com.example.benchmarks;
+
+import com.example.common.model.Category;
+import com.example.common.model.Item;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixtures shaped like the generated database rows and the JMeter request bodies.
+ */
+final class BenchmarkData {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Same settings Spring Boot applies to the mapper all three variants use,
+     * on a plain {@link ObjectMapper} as Boot builds it: a {@code JsonMapper}
+     * cannot be copied onto the CBOR and Smile factories.
+     */
+    @SuppressWarnings("deprecation")
+    static ObjectMapper objectMapper() {
+        ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // Boot's builder sets mapper features the same (deprecated) way
+        mapper.configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false);
+        return mapper;
+    }
+
+    static Item item(long id) {
+        Item item = new Item("Item " + id,
+            "Description for item " + id + ". This item belongs to a category and has various properties for testing purposes.",
+            BigDecimal.valueOf(100 + id * 7919 % 99_900, 2), (int) (id * 31 % 1000), id % 2000 + 1);
+        item.setId(id);
+        item.setCreatedAt(CREATED_AT.plusSeconds(id));
+        item.setUpdatedAt(CREATED_AT.plusSeconds(id).plusMinutes(5));
+        return item;
+    }
+
+    static List<Item> items(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            items.add(item(i));
+        }
+        return items;
+    }
+
+    static List<Category> categories(int count) {
+        List<Category> categories = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Category category = new Category("Category " + id,
+                "Description for category " + id + ". This is a test category with some longer text to simulate real data.");
+            category.setId(id);
+            category.setCreatedAt(CREATED_AT.plusSeconds(id));
+            category.setUpdatedAt(CREATED_AT.plusSeconds(id));
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    /**
+     * POST body as sent by scenario 3 (900-char description, ~1 KB) or
+     * scenario 4 (4800-char description, ~5 KB) of {@code jmeter/generate-jmx.py}.
+     */
+    static byte[] itemBody(int descriptionLength) {
+        String json = "{\"name\":\"Test Item 123456\",\"description\":\"" + "A".repeat(descriptionLength)
+            + "\",\"price\":512.99,\"quantity\":42,\"categoryId\":1234}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.benchmarks;
+
+import com.example.common.model.Item;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body parsing for {@code POST/PUT /items} with the 1 KB (scenario 3)
+ * and 5 KB (scenario 4) JMeter bodies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeserializationBenchmark {
+
+    @Param({"1kb", "5kb"})
+    private String body;
+
+    private ObjectMapper objectMapper;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        objectMapper = BenchmarkData.objectMapper();
+        json = BenchmarkData.itemBody(body.equals("5kb") ? 4800 : 900);
+    }
+
+    @Benchmark
+    public Item item() throws IOException {
+        return objectMapper.readValue(json, Item.class);
+    }
+}
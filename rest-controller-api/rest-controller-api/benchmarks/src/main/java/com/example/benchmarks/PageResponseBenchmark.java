@@ -0,0 +1,58 @@
+package com.example.benchmarks;
+
+import com.example.common.dto.PageResponse;
+import com.example.common.model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PageResponse} construction in its three modes (offset page, slice and
+ * keyset cursor), from rows already loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageResponseBenchmark {
+
+    @Param({"1", "50", "100"})
+    private int size;
+
+    private List<Item> content;
+    private List<Item> rowsWithLookahead;
+
+    @Setup
+    public void setup() {
+        content = BenchmarkData.items(size);
+        rowsWithLookahead = BenchmarkData.items(size + 1);
+    }
+
+    @Benchmark
+    public PageResponse<Item> page() {
+        return new PageResponse<>(content, 3, size, 100_000);
+    }
+
+    @Benchmark
+    public PageResponse<Item> slice() {
+        return PageResponse.ofSlice(content, 3, size, true);
+    }
+
+    @Benchmark
+    public PageResponse<Item> cursor() {
+        return PageResponse.ofCursor(rowsWithLookahead, size, false, Item::getId);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.benchmarks;
+
+import com.example.common.dto.PageResponse;
+import com.example.common.io.BinaryFormats;
+import com.example.common.io.DirectJsonWriter;
+import com.example.common.io.ProtobufWriter;
+import com.example.common.model.Item;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding one response body in each negotiable format: time and allocation
+ * per body from JMH, payload bytes printed once per trial (the
+ * {@code payload:} lines of the output). Size 1 is {@code GET /items/{id}},
+ * 50 and 100 an item page. {@code direct-json} is {@link DirectJsonWriter},
+ * the hand-written counterpart of {@link ProtobufWriter}; the others go
+ * through Jackson.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "direct-json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"1", "50", "100"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private DirectJsonWriter directJsonWriter;
+    private ProtobufWriter protobufWriter;
+    private Object body;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        ObjectMapper json = BenchmarkData.objectMapper();
+        mapper = switch (format) {
+            case "cbor" -> BinaryFormats.cborMapper(json);
+            case "smile" -> BinaryFormats.smileMapper(json);
+            default -> json;
+        };
+        directJsonWriter = new DirectJsonWriter();
+        protobufWriter = new ProtobufWriter();
+        List<Item> items = BenchmarkData.items(size);
+        body = size == 1 ? items.get(0) : new PageResponse<>(items, 0, size, 100_000);
+
+        int bytes = encode().length;
+        int jsonBytes = json.writeValueAsBytes(body).length;
+        System.out.printf(Locale.ROOT, "%npayload: %s, size %d: %d bytes (%.0f%% of JSON)%n",
+            format, size, bytes, bytes * 100.0 / jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] encode() throws JsonProcessingException {
+        return switch (format) {
+            case "direct-json" -> {
+                try (DirectJsonWriter.Rendered json = directJsonWriter.render(body)) {
+                    yield json.toByteArray();
+                }
+            }
+            case "protobuf" -> protobufWriter.toByteArray(body);
+            default -> mapper.writeValueAsBytes(body);
+        };
+    }
+}
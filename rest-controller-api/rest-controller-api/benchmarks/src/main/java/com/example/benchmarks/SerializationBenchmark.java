@@ -0,0 +1,77 @@
+package com.example.benchmarks;
+
+import com.example.common.dto.PageResponse;
+import com.example.common.io.DirectJsonWriter;
+import com.example.common.model.Category;
+import com.example.common.model.Item;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body serialization, as done by the message converters of every
+ * variant. Size 1 is the cost of {@code GET /items/{id}}, 50 and 100 the
+ * default and maximum page sizes. {@code itemPageDirect} writes the same
+ * bytes as {@code itemPage} with the hand-written {@link DirectJsonWriter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "50", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private DirectJsonWriter directJsonWriter;
+    private List<Item> items;
+    private List<Category> categories;
+    private PageResponse<Item> page;
+
+    @Setup
+    public void setup() {
+        objectMapper = BenchmarkData.objectMapper();
+        directJsonWriter = new DirectJsonWriter();
+        items = BenchmarkData.items(size);
+        categories = BenchmarkData.categories(size);
+        page = new PageResponse<>(items, 0, size, 100_000);
+    }
+
+    @Benchmark
+    public byte[] items() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] categories() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(categories);
+    }
+
+    @Benchmark
+    public byte[] itemPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] itemPageDirect() {
+        try (DirectJsonWriter.Rendered json = directJsonWriter.render(page)) {
+            return json.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.common.cache;
+
+/**
+ * Serialized JSON body of a response, written to the output stream as-is.
+ *
+ * @param body    UTF-8 JSON bytes
+ * @param version validators of the serialized value
+ */
+public record CachedJson(byte[] body, ResourceVersion version) {
+}
@@ -0,0 +1,119 @@
+package com.example.common.cache;
+
+import java.util.Collection;
+import java.util.function.LongPredicate;
+
+/**
+ * Compact set of existing category ids, used instead of an {@code existsById}
+ * round-trip before every item write and category listing.
+ *
+ * Ids are kept in a copy-on-write bitmap: lookups are lock-free and the few
+ * category writes copy a small array. Ids the bitmap does not know yet (rows
+ * inserted outside the API) are checked with the fallback and remembered,
+ * unless a {@link #remove} ran meanwhile. The set only ever learns ids: a
+ * category deleted outside the API stays present until a write fails on the
+ * foreign key and the caller removes it.
+ */
+public class CategoryIdSet {
+
+    /** Ids at or above this bound are not kept in the bitmap (2 MB). */
+    private static final long MAX_BITMAP_ID = 1L << 24;
+
+    private volatile long[] words;
+
+    /** Bumped by every {@link #remove}, under the set's lock. */
+    private volatile long removals;
+
+    public CategoryIdSet(Collection<Long> ids) {
+        long[] bitmap = new long[0];
+        for (Long id : ids) {
+            bitmap = set(bitmap, id);
+        }
+        this.words = bitmap;
+    }
+
+    public boolean contains(long id, LongPredicate fallback) {
+        if (!isIndexable(id)) {
+            return fallback.test(id);
+        }
+
+        long[] bitmap = words;
+        int index = (int) (id >>> 6);
+        if (index < bitmap.length && (bitmap[index] & (1L << id)) != 0) {
+            return true;
+        }
+
+        long stamp = stamp();
+        if (fallback.test(id)) {
+            addChecked(id, stamp);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Bitmap lookup only, for callers that cannot block on the fallback. A miss
+     * may still exist in the database: take a {@link #stamp} before checking it,
+     * then {@link #addChecked} it if found.
+     */
+    public boolean containsKnown(long id) {
+        long[] bitmap = words;
+        int index = (int) (id >>> 6);
+        return isIndexable(id) && index < bitmap.length && (bitmap[index] & (1L << id)) != 0;
+    }
+
+    public synchronized void add(long id) {
+        if (isIndexable(id)) {
+            words = set(words.clone(), id);
+        }
+    }
+
+    /** Marks the start of a database check for {@link #addChecked}. */
+    public long stamp() {
+        return removals;
+    }
+
+    /** Adds an id found by a check that started at {@code stamp}, unless a removal ran since. */
+    public synchronized void addChecked(long id, long stamp) {
+        if (removals == stamp) {
+            add(id);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        removals++;
+        long[] bitmap = words;
+        int index = (int) (id >>> 6);
+        if (isIndexable(id) && index < bitmap.length) {
+            long[] copy = bitmap.clone();
+            copy[index] &= ~(1L << id);
+            words = copy;
+        }
+    }
+
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static boolean isIndexable(long id) {
+        return id > 0 && id < MAX_BITMAP_ID;
+    }
+
+    private static long[] set(long[] bitmap, long id) {
+        if (!isIndexable(id)) {
+            return bitmap;
+        }
+        int index = (int) (id >>> 6);
+        if (index >= bitmap.length) {
+            long[] grown = new long[Math.max(index + 1, bitmap.length * 2)];
+            System.arraycopy(bitmap, 0, grown, 0, bitmap.length);
+            bitmap = grown;
+        }
+        bitmap[index] |= 1L << id;
+        return bitmap;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.common.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory item counts (overall and per category) used to fill page totals
+ * without a {@code SELECT COUNT(*)} on every listing.
+ *
+ * Counts are loaded lazily, adjusted by the write handlers and reloaded from the
+ * database once older than the TTL, so drift from racing writes heals itself.
+ */
+public class ItemCountCache {
+
+    private static final long ALL_ITEMS = Long.MIN_VALUE;
+
+    private final long ttlNanos;
+    private final ConcurrentMap<Long, Entry> counts = new ConcurrentHashMap<>();
+
+    public ItemCountCache(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long total(LongSupplier loader) {
+        return get(ALL_ITEMS, loader);
+    }
+
+    public long countByCategory(Long categoryId, LongSupplier loader) {
+        return get(categoryId, loader);
+    }
+
+    /**
+     * Non-blocking access for reactive callers: a current count, if any. A miss
+     * is loaded by the caller and stored with {@link #loaded}.
+     *
+     * @param categoryId category, or null for all items
+     */
+    public OptionalLong peek(Long categoryId) {
+        Entry entry = counts.get(key(categoryId));
+        if (entry == null || System.nanoTime() - entry.loadedAt > ttlNanos) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(entry.count.get());
+    }
+
+    /** @param categoryId category, or null for all items */
+    public void loaded(Long categoryId, long count) {
+        counts.put(key(categoryId), new Entry(count));
+    }
+
+    public void itemAdded(Long categoryId) {
+        itemsAdded(categoryId, 1);
+    }
+
+    public void itemsAdded(Long categoryId, long count) {
+        adjust(categoryId, count);
+        adjust(ALL_ITEMS, count);
+    }
+
+    public void itemRemoved(Long categoryId) {
+        itemsRemoved(categoryId, 1);
+    }
+
+    public void itemsRemoved(Long categoryId, long count) {
+        adjust(categoryId, -count);
+        adjust(ALL_ITEMS, -count);
+    }
+
+    public void itemMoved(Long fromCategoryId, Long toCategoryId) {
+        adjust(fromCategoryId, -1);
+        adjust(toCategoryId, 1);
+    }
+
+    /** Items of a deleted category go away through ON DELETE CASCADE. */
+    public void categoryRemoved(Long categoryId) {
+        counts.remove(categoryId);
+        counts.remove(ALL_ITEMS);
+    }
+
+    public void clear() {
+        counts.clear();
+    }
+
+    private long get(long key, LongSupplier loader) {
+        Entry entry = counts.get(key);
+        if (entry == null || System.nanoTime() - entry.loadedAt > ttlNanos) {
+            entry = new Entry(loader.getAsLong());
+            counts.put(key, entry);
+        }
+        return entry.count.get();
+    }
+
+    private static long key(Long categoryId) {
+        return categoryId != null ? categoryId : ALL_ITEMS;
+    }
+
+    private void adjust(Long key, long delta) {
+        if (key == null) {
+            return;
+        }
+        Entry entry = counts.get(key);
+        if (entry != null) {
+            entry.count.addAndGet(delta);
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong count;
+        private final long loadedAt = System.nanoTime();
+
+        private Entry(long count) {
+            this.count = new AtomicLong(count);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cache of serialized JSON responses for hot reads (item, category and
+ * per-category item listings), so Jackson runs once per entity change instead
+ * of once per request.
+ *
+ * Bodies are produced with the application's {@link ObjectMapper}, so they are
+ * byte-for-byte what the framework would have written. Each entry keeps the
+ * {@link ResourceVersion} of the value it was built from, so conditional
+ * requests are answered from the cache as well.
+ */
+public class JsonResponseCache {
+
+    private final ReadThroughCache<Key, CachedJson> cache;
+    private final ObjectMapper objectMapper;
+
+    public JsonResponseCache(ReadThroughCache<Key, CachedJson> cache, ObjectMapper objectMapper) {
+        this.cache = cache;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return cache.isEnabled();
+    }
+
+    public ReadThroughCache<Key, CachedJson> getCache() {
+        return cache;
+    }
+
+    /** Serialized form of a value that may not exist (e.g. lookup by id). */
+    public Optional<CachedJson> find(Key key, Supplier<? extends Optional<?>> loader) {
+        return cache.get(key, k -> loader.get().map(this::serialize));
+    }
+
+    /** Serialized form of a value that always exists (e.g. a listing page). */
+    public CachedJson get(Key key, Supplier<?> loader) {
+        return cache.get(key, k -> Optional.of(serialize(loader.get()))).orElseThrow();
+    }
+
+    public void invalidateItem(Long itemId) {
+        cache.invalidate(Key.item(itemId));
+    }
+
+    public void invalidateCategory(Long categoryId) {
+        cache.invalidate(Key.category(categoryId));
+    }
+
+    public void invalidateCategoryItems(Long categoryId) {
+        cache.invalidateIf(key -> key.type() == Type.CATEGORY_ITEMS && key.id() == categoryId);
+    }
+
+    public void invalidateAllCategoryItems() {
+        cache.invalidateIf(key -> key.type() == Type.CATEGORY_ITEMS);
+    }
+
+    public void invalidateAllItems() {
+        cache.invalidateIf(key -> key.type() == Type.ITEM);
+    }
+
+    private CachedJson serialize(Object value) {
+        try {
+            return new CachedJson(objectMapper.writeValueAsBytes(value), ResourceVersion.of(value));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public enum Type {
+        ITEM, CATEGORY, CATEGORY_ITEMS
+    }
+
+    public record Key(Type type, long id, int page, int size, boolean slice) {
+
+        public static Key item(long id) {
+            return new Key(Type.ITEM, id, 0, 0, false);
+        }
+
+        public static Key category(long id) {
+            return new Key(Type.CATEGORY, id, 0, 0, false);
+        }
+
+        public static Key categoryItems(long categoryId, int page, int size, boolean slice) {
+            return new Key(Type.CATEGORY_ITEMS, categoryId, page, size, slice);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.common.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded read-through cache keyed by entity id.
+ *
+ * Entries are evicted in insertion order once {@code maxSize} is reached and
+ * treated as missing once older than the TTL. Absent values are not cached.
+ * A {@code maxSize} of 0 disables caching: every lookup goes to the loader.
+ * A load that overlaps an invalidation is returned but not cached, so a value
+ * read before a concurrent update cannot outlive that update's invalidation.
+ */
+public class ReadThroughCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Bumped by every invalidation, under the write lock. */
+    private volatile long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ReadThroughCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = Math.max(maxSize, 0);
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ReadThroughCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        if (!isEnabled()) {
+            misses.increment();
+            return loader.apply(key);
+        }
+
+        long loadGeneration = generation;
+        Entry<V> entry = read(key);
+        if (entry != null) {
+            if (!entry.isExpired(ttlNanos)) {
+                hits.increment();
+                return Optional.of(entry.value);
+            }
+            expire(key, entry);
+        }
+
+        misses.increment();
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresent(value -> putIfCurrent(key, value, loadGeneration));
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            entries.put(key, new Entry<>(value));
+            puts.increment();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.writeLock().lock();
+        try {
+            entries.remove(key);
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidateIf(Predicate<? super K> keyPredicate) {
+        lock.writeLock().lock();
+        try {
+            entries.keySet().removeIf(keyPredicate);
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void putIfCurrent(K key, V value, long loadGeneration) {
+        lock.writeLock().lock();
+        try {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(value));
+                puts.increment();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Entry<V> read(K key) {
+        lock.readLock().lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void expire(K key, Entry<V> entry) {
+        lock.writeLock().lock();
+        try {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt = System.nanoTime();
+
+        private Entry(V value) {
+            this.value = value;
+        }
+
+        private boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - createdAt > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.common.cache;
+
+import com.example.common.dto.PageResponse;
+import com.example.common.model.Versioned;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * HTTP validators of a response, derived from {@code updated_at}.
+ *
+ * The tag is meant to be sent as a weak ETag: it identifies the state of the
+ * entity (or of the entities on a page), not the exact bytes of the body.
+ * Timestamps are truncated to microseconds, the precision PostgreSQL keeps, so
+ * a version computed from a freshly loaded row matches the one computed from
+ * the {@code updatedAt} alone.
+ *
+ * @param tag          entity tag value, without quotes or weak prefix
+ * @param lastModified epoch millis for {@code Last-Modified}, or -1 if unknown
+ */
+public record ResourceVersion(String tag, long lastModified) {
+
+    private static final ResourceVersion UNKNOWN = new ResourceVersion("0", -1);
+
+    public static ResourceVersion of(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return UNKNOWN;
+        }
+        return new ResourceVersion(Long.toHexString(micros(updatedAt)), epochMillis(updatedAt));
+    }
+
+    public static ResourceVersion of(Versioned entity) {
+        return of(entity.getUpdatedAt());
+    }
+
+    /**
+     * Version of a listing: changes when any entity on the page is updated,
+     * when rows are added or removed, or when the totals move. Listings have no
+     * {@code Last-Modified}: a deleted row, or older rows shifting onto the
+     * page, leave the newest {@code updated_at} where it was.
+     */
+    public static ResourceVersion of(PageResponse<? extends Versioned> page) {
+        long hash = 17;
+        for (Versioned entity : page.getContent()) {
+            LocalDateTime updatedAt = entity.getUpdatedAt();
+            hash = 31 * hash + entity.getId();
+            if (updatedAt != null) {
+                hash = 31 * hash + micros(updatedAt);
+            }
+        }
+        hash = 31 * hash + page.getTotalElements();
+        hash = 31 * hash + (page.isHasNext() ? 1 : 0);
+        return new ResourceVersion(Long.toHexString(hash), -1);
+    }
+
+    /** Version of a single entity or of a page of entities. */
+    @SuppressWarnings("unchecked")
+    public static ResourceVersion of(Object value) {
+        if (value instanceof Versioned entity) {
+            return of(entity);
+        }
+        if (value instanceof PageResponse<?> page) {
+            return of((PageResponse<? extends Versioned>) page);
+        }
+        throw new IllegalArgumentException("Not a versioned resource: " + value.getClass().getName());
+    }
+
+    private static long micros(LocalDateTime updatedAt) {
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    private static long epochMillis(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
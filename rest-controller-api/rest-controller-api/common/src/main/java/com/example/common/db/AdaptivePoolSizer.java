@@ -0,0 +1,225 @@
+package com.example.common.db;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes Hikari pools at runtime, AIMD style. Every interval each pool is
+ * sampled: threads waiting for a connection, mean acquire time and mean time a
+ * connection was held (one repository query, so a proxy for database latency).
+ * <ul>
+ *   <li>latency above {@code latencyTolerance} times its baseline: the database
+ *       is saturated, shrink multiplicatively (by the latency gradient, at most 10%)</li>
+ *   <li>otherwise, threads waited for a connection: grow by sqrt(size)</li>
+ *   <li>otherwise, less than half the pool in use: shrink by one</li>
+ * </ul>
+ * The baseline is the lowest latency seen, drifting slowly up so it follows a
+ * growing table. Sizes stay within [minSize, maxSize]. An overload decrease
+ * below the number of open connections soft-evicts the pool: idle connections
+ * close at once, busy ones when returned, and the pool reopens up to the new
+ * limit. After an idle decrease the surplus retires with Hikari's {@code idleTimeout}.
+ *
+ * <p>Decisions are published per pool as {@code db.pool.sizer.limit},
+ * {@code db.pool.sizer.latency}, {@code db.pool.sizer.latency.baseline} and
+ * {@code db.pool.sizer.decisions{action}}.
+ */
+public class AdaptivePoolSizer implements MeterBinder, AutoCloseable {
+
+    private static final System.Logger LOG = System.getLogger(AdaptivePoolSizer.class.getName());
+    private static final double BACKOFF = 0.9;
+    private static final double ACQUIRE_WAIT_MILLIS = 1.0;
+    private static final double BASELINE_DRIFT = 0.01;
+
+    /** Size bounds, sampling interval and the latency multiple that counts as overload. */
+    public record Settings(int minSize, int maxSize, Duration interval, double latencyTolerance) {
+    }
+
+    private final Settings settings;
+    private final List<PoolState> pools;
+    private volatile MeterRegistry registry;
+    private ScheduledExecutorService sampler;
+
+    public AdaptivePoolSizer(List<HikariDataSource> dataSources, Settings settings) {
+        if (settings.minSize() < 1 || settings.maxSize() < settings.minSize()) {
+            throw new IllegalArgumentException("Pool size bounds must satisfy 1 <= min <= max");
+        }
+        this.settings = settings;
+        this.pools = dataSources.stream().map(PoolState::new).toList();
+        for (PoolState pool : pools) {
+            pool.limit = clamp(pool.dataSource.getMaximumPoolSize());
+            pool.dataSource.getHikariConfigMXBean().setMaximumPoolSize(pool.limit);
+        }
+    }
+
+    public synchronized void start() {
+        if (sampler != null) {
+            return;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.interval().toMillis();
+        sampler.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (PoolState pool : pools) {
+            Gauge.builder("db.pool.sizer.limit", pool, p -> p.limit)
+                .description("Maximum pool size chosen by the adaptive sizer")
+                .tag("pool", pool.name)
+                .register(registry);
+            TimeGauge.builder("db.pool.sizer.latency", pool, TimeUnit.MILLISECONDS, p -> p.latencyMillis)
+                .description("Mean connection hold time in the last sampling interval")
+                .tag("pool", pool.name)
+                .register(registry);
+            TimeGauge.builder("db.pool.sizer.latency.baseline", pool, TimeUnit.MILLISECONDS, p -> p.baselineMillis)
+                .description("Uncongested connection hold time the sizer compares against")
+                .tag("pool", pool.name)
+                .register(registry);
+            pool.increased = decisions(registry, pool, "increase");
+            pool.decreased = decisions(registry, pool, "decrease");
+            pool.held = decisions(registry, pool, "hold");
+        }
+        this.registry = registry;
+    }
+
+    private static Counter decisions(MeterRegistry registry, PoolState pool, String action) {
+        return Counter.builder("db.pool.sizer.decisions")
+            .description("Sizing decisions of the adaptive pool sizer")
+            .tag("pool", pool.name)
+            .tag("action", action)
+            .register(registry);
+    }
+
+    void sample() {
+        MeterRegistry meters = registry;
+        if (meters == null) {
+            return;
+        }
+        for (PoolState pool : pools) {
+            try {
+                sample(pool, meters);
+            } catch (RuntimeException e) {
+                LOG.log(System.Logger.Level.WARNING, "Sizing " + pool.name + " failed", e);
+            }
+        }
+    }
+
+    private void sample(PoolState pool, MeterRegistry meters) {
+        HikariPoolMXBean poolBean = pool.dataSource.getHikariPoolMXBean();
+        Timer acquire = meters.find("hikaricp.connections.acquire").tag("pool", pool.name).timer();
+        Timer usage = meters.find("hikaricp.connections.usage").tag("pool", pool.name).timer();
+        if (poolBean == null || acquire == null || usage == null) {
+            // Hikari starts the pool, and its meters, on the first connection
+            return;
+        }
+
+        double acquireMillis = pool.acquire.meanMillis(acquire);
+        double latencyMillis = pool.usage.meanMillis(usage);
+        int pending = poolBean.getThreadsAwaitingConnection();
+        int active = poolBean.getActiveConnections();
+
+        pool.latencyMillis = latencyMillis;
+        if (!Double.isNaN(latencyMillis)) {
+            pool.baselineMillis = Double.isNaN(pool.baselineMillis) || latencyMillis < pool.baselineMillis
+                ? latencyMillis
+                : pool.baselineMillis + (latencyMillis - pool.baselineMillis) * BASELINE_DRIFT;
+        }
+
+        int limit = pool.limit;
+        int target = limit;
+        boolean overloaded = !Double.isNaN(latencyMillis)
+            && latencyMillis > pool.baselineMillis * settings.latencyTolerance();
+        if (overloaded) {
+            double gradient = pool.baselineMillis * settings.latencyTolerance() / latencyMillis;
+            target = Math.min(limit - 1, (int) (limit * Math.max(BACKOFF, gradient)));
+        } else if (pending > 0 || acquireMillis > ACQUIRE_WAIT_MILLIS) {
+            target = limit + Math.max(1, (int) Math.sqrt(limit));
+        } else if (active < limit / 2) {
+            target = limit - 1;
+        }
+        int next = clamp(target);
+
+        if (next == limit) {
+            pool.held.increment();
+            return;
+        }
+        HikariConfigMXBean config = pool.dataSource.getHikariConfigMXBean();
+        config.setMaximumPoolSize(next);
+        pool.limit = next;
+        if (overloaded && poolBean.getTotalConnections() > next) {
+            // Hikari keeps lending connections opened above a lowered maximum; retire
+            // them (busy ones on return) so the pool refills within the new limit
+            poolBean.softEvictConnections();
+        }
+        (next > limit ? pool.increased : pool.decreased).increment();
+        LOG.log(System.Logger.Level.DEBUG, () -> String.format(
+            "%s: %d -> %d (pending %d, active %d, acquire %.1fms, latency %.1fms, baseline %.1fms)",
+            pool.name, limit, next, pending, active, acquireMillis, latencyMillis, pool.baselineMillis));
+    }
+
+    private int clamp(int size) {
+        return Math.max(settings.minSize(), Math.min(settings.maxSize(), size));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    private static final class PoolState {
+
+        final HikariDataSource dataSource;
+        final String name;
+        final Window acquire = new Window();
+        final Window usage = new Window();
+        volatile int limit;
+        volatile double latencyMillis = Double.NaN;
+        volatile double baselineMillis = Double.NaN;
+        Counter increased;
+        Counter decreased;
+        Counter held;
+
+        PoolState(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.name = dataSource.getPoolName();
+        }
+    }
+
+    /** Mean of a cumulative timer since the previous call. */
+    private static final class Window {
+
+        private long count;
+        private double totalMillis;
+
+        /** NaN when nothing was recorded in the window. */
+        double meanMillis(Timer timer) {
+            long newCount = timer.count();
+            double newTotal = timer.totalTime(TimeUnit.MILLISECONDS);
+            long samples = newCount - count;
+            double mean = samples > 0 ? (newTotal - totalMillis) / samples : Double.NaN;
+            count = newCount;
+            totalMillis = newTotal;
+            return mean;
+        }
+    }
+}
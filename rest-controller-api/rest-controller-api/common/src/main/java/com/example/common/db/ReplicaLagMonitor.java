@@ -0,0 +1,163 @@
+package com.example.common.db;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether read-only work may go to the replica. A daemon thread reads
+ * the primary's current WAL position every interval, then asks the replica how
+ * far its replay is behind it; reads use the replica while that lag is known
+ * and at most {@code maxLag}. A replica that has replayed past the primary's
+ * position has no lag, however long ago it last received anything. One that
+ * has not is as far behind as its last replayed transaction, which keeps
+ * growing while streaming is broken. A failed check on either side or a failed
+ * connection attempt sends reads to the primary until the next good check.
+ * Published as {@code db.replica.lag} (seconds, NaN while unknown),
+ * {@code db.replica.usable} (1/0) and {@code db.replica.fallbacks}.
+ */
+public class ReplicaLagMonitor implements MeterBinder, AutoCloseable {
+
+    private static final System.Logger LOG = System.getLogger(ReplicaLagMonitor.class.getName());
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn()::text";
+
+    // Replayed up to the primary's position counts as no lag: the last replay timestamp keeps
+    // aging while the primary is idle. Received but not replayed WAL does not count, nor does
+    // a receiver that is merely connected. NULL (unknown) when nothing was replayed yet.
+    static final String LAG_QUERY = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN pg_last_wal_replay_lsn() >= ?::pg_lsn THEN 0
+            ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+        END""";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final double maxLagSeconds;
+    private final Duration interval;
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+    private ScheduledExecutorService checker;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, Duration interval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.interval = interval;
+    }
+
+    public synchronized void start() {
+        if (checker != null) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Whether the next read-only connection should come from the replica; counts a fallback when not. */
+    public boolean useReplica() {
+        if (usable) {
+            return true;
+        }
+        fallbacks.increment();
+        return false;
+    }
+
+    /** A replica connection could not be opened: reads go to the primary until the next good check. */
+    public void connectionFailed(SQLException e) {
+        fallbacks.increment();
+        update(Double.NaN, e);
+    }
+
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+
+    void check() {
+        try {
+            String primaryLsn = primaryLsn();
+            try (Connection connection = replica.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+                statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+                statement.setString(1, primaryLsn);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    double lag = rs.getDouble(1);
+                    update(rs.wasNull() ? Double.NaN : lag, null);
+                }
+            }
+        } catch (SQLException e) {
+            update(Double.NaN, e);
+        }
+    }
+
+    /** Read first, so anything committed before the replica is asked must have been replayed. */
+    private String primaryLsn() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private synchronized void update(double lag, SQLException failure) {
+        boolean wasUsable = usable;
+        lagSeconds = lag;
+        // NaN (unknown) compares false
+        usable = lag <= maxLagSeconds;
+        if (wasUsable && !usable) {
+            LOG.log(System.Logger.Level.WARNING, failure != null
+                ? "Replica lag check failed, reading from the primary: " + failure.getMessage()
+                : Double.isNaN(lag)
+                ? "Replica lag unknown, reading from the primary"
+                : "Replica " + lag + "s behind, reading from the primary");
+        } else if (!wasUsable && usable) {
+            LOG.log(System.Logger.Level.INFO, "Replica in sync, reading from the replica");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.replica.lag", this, ReplicaLagMonitor::lagSeconds)
+            .description("Replay lag of the read replica behind the primary, NaN when it cannot be reached")
+            .baseUnit("seconds")
+            .register(registry);
+        Gauge.builder("db.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+            .description("Whether read-only transactions currently go to the replica")
+            .register(registry);
+        FunctionCounter.builder("db.replica.fallbacks", fallbacks, LongAdder::sum)
+            .description("Read-only connections taken from the primary because the replica lagged or failed")
+            .register(registry);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+            checker = null;
+        }
+    }
+}
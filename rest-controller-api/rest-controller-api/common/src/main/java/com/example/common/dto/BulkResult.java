@@ -0,0 +1,36 @@
+package com.example.common.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk write: ids of the rows created, updated or deleted
+ */
+public class BulkResult {
+
+    private int count;
+    private List<Long> ids;
+
+    public BulkResult() {
+    }
+
+    public BulkResult(List<Long> ids) {
+        this.count = ids.size();
+        this.ids = ids;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
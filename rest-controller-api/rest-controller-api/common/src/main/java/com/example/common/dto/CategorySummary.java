@@ -0,0 +1,21 @@
+package com.example.common.dto;
+
+import com.example.common.model.Versioned;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slim category for list pages ({@code fields=summary}), without the description.
+ */
+public record CategorySummary(Long id, String name, LocalDateTime updatedAt) implements Versioned {
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
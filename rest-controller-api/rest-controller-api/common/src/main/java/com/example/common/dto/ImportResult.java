@@ -0,0 +1,44 @@
+package com.example.common.dto;
+
+/**
+ * Outcome of a bulk import: rows loaded and load throughput
+ */
+public class ImportResult {
+
+    private long rows;
+    private long millis;
+    private long rowsPerSecond;
+
+    public ImportResult() {
+    }
+
+    public ImportResult(long rows, long millis) {
+        this.rows = rows;
+        this.millis = millis;
+        this.rowsPerSecond = millis > 0 ? rows * 1000 / millis : rows;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public void setMillis(long millis) {
+        this.millis = millis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.common.dto;
+
+import com.example.common.model.Versioned;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Slim item for list pages ({@code fields=summary}). Read as a DTO projection:
+ * no description column, no managed entity, no dirty-checking snapshot.
+ */
+public record ItemSummary(Long id, String name, BigDecimal price, Long categoryId, LocalDateTime updatedAt)
+        implements Versioned {
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.common.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor.
+ * Encodes the id of the last row of a page; plain numeric ids are accepted too.
+ */
+public final class PageCursor {
+
+    private PageCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the id to seek after. A missing or empty cursor starts from the beginning.
+     *
+     * @throws IllegalArgumentException if the cursor cannot be decoded
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        String value = cursor.trim();
+        if (!isNumeric(value)) {
+            try {
+                value = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.US_ASCII);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+
+        try {
+            long id = Long.parseLong(value);
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    private static boolean isNumeric(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
+import java.util.function.ToLongFunction;
 
 /**
  * Standard pagination response wrapper
@@ -14,6 +17,10 @@ public class PageResponse<T> {
     private int totalPages;
     private boolean first;
     private boolean last;
+    private boolean hasNext;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
     public PageResponse() {
     }
@@ -26,6 +33,49 @@ public class PageResponse<T> {
         this.totalPages = (int) Math.ceil((double) totalElements / size);
         this.first = page == 0;
         this.last = page >= totalPages - 1;
+        this.hasNext = !last;
+    }
+
+    /**
+     * Page read as a {@code Slice}: no COUNT query was run, so totals are unknown (-1)
+     * and only {@code hasNext} tells whether another page exists.
+     */
+    public static <T> PageResponse<T> ofSlice(List<T> content, int page, int size, boolean hasNext) {
+        PageResponse<T> response = new PageResponse<>();
+        response.content = content;
+        response.page = page;
+        response.size = size;
+        response.totalElements = -1;
+        response.totalPages = -1;
+        response.first = page == 0;
+        response.last = !hasNext;
+        response.hasNext = hasNext;
+        return response;
+    }
+
+    /**
+     * Keyset page built from up to {@code size + 1} rows ordered by id; the extra row
+     * only tells that another page exists. Totals are not computed in this mode (-1).
+     */
+    public static <T> PageResponse<T> ofCursor(List<T> rows, int size, boolean first, ToLongFunction<T> idOf) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<T> content = hasMore ? rows.subList(0, size) : rows;
+
+        PageResponse<T> response = new PageResponse<>();
+        response.content = content;
+        response.page = 0;
+        response.size = size;
+        response.totalElements = -1;
+        response.totalPages = -1;
+        response.first = first;
+        response.last = !hasMore;
+        response.hasNext = hasMore;
+        response.nextCursor = hasMore ? PageCursor.encode(idOf.applyAsLong(content.get(size - 1))) : null;
+        return response;
     }
 
     // Getters and Setters
@@ -84,4 +134,20 @@ public class PageResponse<T> {
     public void setLast(boolean last) {
         this.last = last;
     }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
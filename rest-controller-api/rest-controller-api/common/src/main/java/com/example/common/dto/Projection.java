@@ -0,0 +1,49 @@
+package com.example.common.dto;
+
+import com.example.common.model.Category;
+import com.example.common.model.Item;
+import com.example.common.model.Versioned;
+
+import java.util.Locale;
+
+/**
+ * Row shape of a list endpoint, picked with {@code fields=}: the full entity
+ * (default) or a summary projection that only reads the listed columns.
+ */
+public enum Projection {
+
+    FULL(Item.class, Category.class),
+    SUMMARY(ItemSummary.class, CategorySummary.class);
+
+    private final Class<? extends Versioned> itemType;
+    private final Class<? extends Versioned> categoryType;
+
+    Projection(Class<? extends Versioned> itemType, Class<? extends Versioned> categoryType) {
+        this.itemType = itemType;
+        this.categoryType = categoryType;
+    }
+
+    public Class<? extends Versioned> itemType() {
+        return itemType;
+    }
+
+    public Class<? extends Versioned> categoryType() {
+        return categoryType;
+    }
+
+    /**
+     * A missing or empty value selects {@link #FULL}.
+     *
+     * @throws IllegalArgumentException if the value names no projection
+     */
+    public static Projection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(fields.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown fields: " + fields, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.common.io;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Jackson's binary JSON encodings offered next to JSON. The mappers are copies
+ * of the application's JSON mapper on another factory, so modules, naming and
+ * date handling (ISO strings, not timestamps) stay the same in every format.
+ * The JSON mapper must be a plain {@link ObjectMapper}, as Spring Boot builds
+ * it; Jackson refuses to copy a {@code JsonMapper} onto another format.
+ */
+public final class BinaryFormats {
+
+    public static final String CBOR = "application/cbor";
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private BinaryFormats() {
+    }
+
+    public static ObjectMapper cborMapper(ObjectMapper jsonMapper) {
+        return jsonMapper.copyWith(new CBORFactory());
+    }
+
+    public static ObjectMapper smileMapper(ObjectMapper jsonMapper) {
+        return jsonMapper.copyWith(new SmileFactory());
+    }
+}
@@ -0,0 +1,452 @@
+package com.example.common.io;
+
+import com.example.common.dto.CategorySummary;
+import com.example.common.dto.ItemSummary;
+import com.example.common.dto.PageResponse;
+import com.example.common.model.Category;
+import com.example.common.model.Item;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes the API's own types ({@link Item}, {@link Category}, their summaries
+ * and {@link PageResponse} of those) as JSON without Jackson: each field is
+ * written directly into a pooled byte buffer, numbers, {@code BigDecimal} and
+ * {@code LocalDateTime} digit by digit. The output is the one the variants'
+ * Jackson setup produces, byte for byte: same field order, {@code null}s
+ * written, {@code nextCursor} only when set, {@code BigDecimal#toString()}
+ * notation and ISO-8601 date-times.
+ *
+ * <p>{@link #canWrite(Object)} is false for anything else (e.g. a page of
+ * another type); the web adapters then hand the value to Jackson.
+ */
+public class DirectJsonWriter {
+
+    /** Buffers are pooled up to this size; a larger one is dropped after use. */
+    private static final int MAX_POOLED_BYTES = 1 << 20;
+    private static final int INITIAL_BYTES = 8192;
+    private static final int POOL_SIZE = 64;
+
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    private final BlockingQueue<Buffer> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /** Whether values of this class may be writable; pages still need {@link #canWrite(Object)}. */
+    public static boolean supports(Class<?> type) {
+        return Item.class.isAssignableFrom(type) || Category.class.isAssignableFrom(type)
+            || type == ItemSummary.class || type == CategorySummary.class
+            || PageResponse.class.isAssignableFrom(type);
+    }
+
+    public boolean canWrite(Object value) {
+        return writable(value);
+    }
+
+    /** A supported value, or a page whose rows all are (pages of pages are not). */
+    static boolean writable(Object value) {
+        if (value instanceof PageResponse<?> page) {
+            List<?> content = page.getContent();
+            if (content == null) {
+                return true;
+            }
+            for (Object row : content) {
+                if (row == null || row instanceof PageResponse || !supports(row.getClass())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value != null && supports(value.getClass());
+    }
+
+    /** Renders {@code value} into a pooled buffer; close the result to return it. */
+    public Rendered render(Object value) {
+        Buffer buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new Buffer();
+        }
+        buffer.count = 0;
+        writeValue(buffer, value);
+        return new Rendered(buffer);
+    }
+
+    public void write(Object value, OutputStream out) throws IOException {
+        try (Rendered json = render(value)) {
+            json.writeTo(out);
+        }
+    }
+
+    /** A rendered body, backed by a pooled buffer until closed. */
+    public final class Rendered implements AutoCloseable {
+
+        private Buffer buffer;
+
+        private Rendered(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int size() {
+            return buffer.count;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(buffer.bytes, 0, buffer.count);
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer.bytes, buffer.count);
+        }
+
+        @Override
+        public void close() {
+            if (buffer != null && buffer.bytes.length <= MAX_POOLED_BYTES) {
+                pool.offer(buffer);
+            }
+            buffer = null;
+        }
+    }
+
+    private static void writeValue(Buffer out, Object value) {
+        if (value instanceof Item item) {
+            writeItem(out, item);
+        } else if (value instanceof Category category) {
+            writeCategory(out, category);
+        } else if (value instanceof ItemSummary item) {
+            writeItemSummary(out, item);
+        } else if (value instanceof CategorySummary category) {
+            writeCategorySummary(out, category);
+        } else if (value instanceof PageResponse<?> page) {
+            writePage(out, page);
+        } else {
+            throw new IllegalArgumentException("Not writable without Jackson: " + value);
+        }
+    }
+
+    private static void writePage(Buffer out, PageResponse<?> page) {
+        out.write('{');
+        out.name("content", false);
+        List<?> content = page.getContent();
+        if (content == null) {
+            out.write(NULL);
+        } else {
+            out.write('[');
+            for (int i = 0, n = content.size(); i < n; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeValue(out, content.get(i));
+            }
+            out.write(']');
+        }
+        out.name("page", true);
+        out.number(page.getPage());
+        out.name("size", true);
+        out.number(page.getSize());
+        out.name("totalElements", true);
+        out.number(page.getTotalElements());
+        out.name("totalPages", true);
+        out.number(page.getTotalPages());
+        out.name("first", true);
+        out.bool(page.isFirst());
+        out.name("last", true);
+        out.bool(page.isLast());
+        out.name("hasNext", true);
+        out.bool(page.isHasNext());
+        if (page.getNextCursor() != null) {
+            out.name("nextCursor", true);
+            out.string(page.getNextCursor());
+        }
+        out.write('}');
+    }
+
+    private static void writeItem(Buffer out, Item item) {
+        out.write('{');
+        out.name("id", false);
+        out.number(item.getId());
+        out.name("name", true);
+        out.string(item.getName());
+        out.name("description", true);
+        out.string(item.getDescription());
+        out.name("price", true);
+        out.decimal(item.getPrice());
+        out.name("quantity", true);
+        out.number(item.getQuantity());
+        out.name("categoryId", true);
+        out.number(item.getCategoryId());
+        out.name("createdAt", true);
+        out.dateTime(item.getCreatedAt());
+        out.name("updatedAt", true);
+        out.dateTime(item.getUpdatedAt());
+        out.write('}');
+    }
+
+    private static void writeCategory(Buffer out, Category category) {
+        out.write('{');
+        out.name("id", false);
+        out.number(category.getId());
+        out.name("name", true);
+        out.string(category.getName());
+        out.name("description", true);
+        out.string(category.getDescription());
+        out.name("createdAt", true);
+        out.dateTime(category.getCreatedAt());
+        out.name("updatedAt", true);
+        out.dateTime(category.getUpdatedAt());
+        out.write('}');
+    }
+
+    private static void writeItemSummary(Buffer out, ItemSummary item) {
+        out.write('{');
+        out.name("id", false);
+        out.number(item.id());
+        out.name("name", true);
+        out.string(item.name());
+        out.name("price", true);
+        out.decimal(item.price());
+        out.name("categoryId", true);
+        out.number(item.categoryId());
+        out.name("updatedAt", true);
+        out.dateTime(item.updatedAt());
+        out.write('}');
+    }
+
+    private static void writeCategorySummary(Buffer out, CategorySummary category) {
+        out.write('{');
+        out.name("id", false);
+        out.number(category.id());
+        out.name("name", true);
+        out.string(category.name());
+        out.name("updatedAt", true);
+        out.dateTime(category.updatedAt());
+        out.write('}');
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Growable byte array with the JSON primitives. */
+    private static final class Buffer {
+
+        byte[] bytes = new byte[INITIAL_BYTES];
+        int count;
+
+        private void ensure(int extra) {
+            if (count + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, count + extra));
+            }
+        }
+
+        void write(int b) {
+            ensure(1);
+            bytes[count++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, count, b.length);
+            count += b.length;
+        }
+
+        /** {@code ,"name":} for a plain ASCII field name. */
+        void name(String name, boolean comma) {
+            int length = name.length();
+            ensure(length + 4);
+            if (comma) {
+                bytes[count++] = ',';
+            }
+            bytes[count++] = '"';
+            for (int i = 0; i < length; i++) {
+                bytes[count++] = (byte) name.charAt(i);
+            }
+            bytes[count++] = '"';
+            bytes[count++] = ':';
+        }
+
+        void bool(boolean value) {
+            write(value ? TRUE : FALSE);
+        }
+
+        void number(Long value) {
+            if (value == null) {
+                write(NULL);
+            } else {
+                number(value.longValue());
+            }
+        }
+
+        void number(Integer value) {
+            if (value == null) {
+                write(NULL);
+            } else {
+                number(value.longValue());
+            }
+        }
+
+        void number(long value) {
+            if (value == Long.MIN_VALUE) {
+                write(ascii(Long.toString(value)));
+                return;
+            }
+            ensure(20);
+            if (value < 0) {
+                bytes[count++] = '-';
+                value = -value;
+            }
+            digits(value, 1);
+        }
+
+        /** Writes at least {@code minDigits} decimal digits of a non-negative value. */
+        private void digits(long value, int minDigits) {
+            int length = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                length++;
+            }
+            length = Math.max(length, minDigits);
+            ensure(length);
+            int end = count + length;
+            for (int i = end - 1; i >= count; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            count = end;
+        }
+
+        /** As {@link BigDecimal#toString()}, which is how Jackson writes it. */
+        void decimal(BigDecimal value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            int scale = value.scale();
+            int precision = value.precision();
+            if (scale < 0 || precision - 1 - scale < -6 || precision > 18) {
+                // Scientific notation or more digits than a long holds
+                write(ascii(value.toString()));
+                return;
+            }
+            long unscaled = value.unscaledValue().longValue();
+            ensure(precision + scale + 3);
+            if (unscaled < 0) {
+                bytes[count++] = '-';
+                unscaled = -unscaled;
+            }
+            if (scale == 0) {
+                digits(unscaled, 1);
+                return;
+            }
+            long pow = 1;
+            for (int i = 0; i < scale; i++) {
+                pow *= 10;
+            }
+            digits(unscaled / pow, 1);
+            bytes[count++] = '.';
+            digits(unscaled % pow, scale);
+        }
+
+        /** As {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}: seconds always, fraction without trailing zeros. */
+        void dateTime(LocalDateTime value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            int year = value.getYear();
+            if (year < 0 || year > 9999) {
+                string(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+                return;
+            }
+            ensure(32);
+            bytes[count++] = '"';
+            digits(year, 4);
+            bytes[count++] = '-';
+            digits(value.getMonthValue(), 2);
+            bytes[count++] = '-';
+            digits(value.getDayOfMonth(), 2);
+            bytes[count++] = 'T';
+            digits(value.getHour(), 2);
+            bytes[count++] = ':';
+            digits(value.getMinute(), 2);
+            bytes[count++] = ':';
+            digits(value.getSecond(), 2);
+            int nanos = value.getNano();
+            if (nanos > 0) {
+                int fractionDigits = 9;
+                while (nanos % 10 == 0) {
+                    nanos /= 10;
+                    fractionDigits--;
+                }
+                bytes[count++] = '.';
+                digits(nanos, fractionDigits);
+            }
+            bytes[count++] = '"';
+        }
+
+        /** UTF-8 with Jackson's escaping: quote, backslash, control characters and surrogates. */
+        void string(String value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            int length = value.length();
+            // Worst case: 6 bytes per char for an escaped control character
+            ensure(length * 6 + 2);
+            byte[] b = bytes;
+            int n = count;
+            b[n++] = '"';
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c >= 0x20 && c != '"' && c != '\\') {
+                        b[n++] = (byte) c;
+                        continue;
+                    }
+                    b[n++] = '\\';
+                    switch (c) {
+                        case '"', '\\' -> b[n++] = (byte) c;
+                        case '\b' -> b[n++] = 'b';
+                        case '\t' -> b[n++] = 't';
+                        case '\n' -> b[n++] = 'n';
+                        case '\f' -> b[n++] = 'f';
+                        case '\r' -> b[n++] = 'r';
+                        default -> {
+                            b[n++] = 'u';
+                            b[n++] = '0';
+                            b[n++] = '0';
+                            b[n++] = HEX[c >> 4];
+                            b[n++] = HEX[c & 0xF];
+                        }
+                    }
+                } else if (c < 0x800) {
+                    b[n++] = (byte) (0xC0 | (c >> 6));
+                    b[n++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Jackson escapes each half of a surrogate pair rather than encoding the code point
+                    b[n++] = '\\';
+                    b[n++] = 'u';
+                    b[n++] = HEX[c >> 12];
+                    b[n++] = HEX[(c >> 8) & 0xF];
+                    b[n++] = HEX[(c >> 4) & 0xF];
+                    b[n++] = HEX[c & 0xF];
+                } else {
+                    b[n++] = (byte) (0xE0 | (c >> 12));
+                    b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    b[n++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            b[n++] = '"';
+            count = n;
+        }
+    }
+}
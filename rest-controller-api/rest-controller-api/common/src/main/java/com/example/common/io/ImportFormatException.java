@@ -0,0 +1,12 @@
+package com.example.common.io;
+
+/**
+ * Malformed import input. The message only says where the input is wrong
+ * (line or column position), so it is safe to return to the client.
+ */
+public class ImportFormatException extends RuntimeException {
+
+    public ImportFormatException(String message) {
+        super(message);
+    }
+}
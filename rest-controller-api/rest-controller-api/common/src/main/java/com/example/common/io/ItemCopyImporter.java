@@ -0,0 +1,306 @@
+package com.example.common.io;
+
+import com.example.common.dto.ImportResult;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads items with PostgreSQL {@code COPY item FROM STDIN}.
+ *
+ * CSV input is piped through as-is after its header line has been checked;
+ * NDJSON is parsed object by object and re-encoded as CSV on the fly. In both
+ * cases the input is consumed in chunks and never held in memory, and new ids
+ * come from item_id_seq as for any insert.
+ */
+public class ItemCopyImporter {
+
+    /** Columns an import may set; id, created_at and updated_at use their defaults. */
+    private static final List<String> COLUMNS = List.of("name", "description", "price", "quantity", "category_id");
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("name", "price", "category_id");
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON(NdjsonWriter.MEDIA_TYPE);
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        /** Format of a request body, from its Content-Type (parameters ignored). */
+        public static Optional<Format> fromMediaType(String contentType) {
+            if (contentType == null) {
+                return Optional.empty();
+            }
+            String type = contentType.split(";", 2)[0].trim();
+            return Arrays.stream(values())
+                .filter(format -> format.mediaType.equalsIgnoreCase(type))
+                .findFirst();
+        }
+
+        /** Format of a file, from its extension (.csv, .ndjson or .jsonl). */
+        public static Optional<Format> fromFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return Optional.of(CSV);
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return Optional.of(NDJSON);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /** Called about once per second while rows are sent. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void progress(long rows, long rowsPerSecond);
+    }
+
+    /**
+     * Copies the items read from {@code in} into the item table.
+     *
+     * @throws ImportFormatException if the input is malformed; nothing is loaded then
+     */
+    public ImportResult importItems(Connection connection, InputStream in, Format format,
+                                    ProgressListener listener) throws SQLException, IOException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        Progress progress = new Progress(listener);
+        
+        long rows = format == Format.CSV
+            ? copyCsv(copyManager, new BufferedInputStream(in, CHUNK_SIZE), progress)
+            : copyNdjson(copyManager, in, progress);
+        
+        return new ImportResult(rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - progress.start));
+    }
+
+    private long copyCsv(CopyManager copyManager, InputStream in, Progress progress) throws SQLException, IOException {
+        List<String> columns = readHeader(in);
+        CopyIn copyIn = copyManager.copyIn(copySql(columns));
+        try {
+            byte[] buffer = new byte[CHUNK_SIZE];
+            long lines = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                copyIn.writeToCopy(buffer, 0, read);
+                // Line count is only an estimate for progress: quoted fields may span lines
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                progress.report(lines);
+            }
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private long copyNdjson(CopyManager copyManager, InputStream in, Progress progress) throws SQLException, IOException {
+        CopyIn copyIn = copyManager.copyIn(copySql(COLUMNS));
+        try (JsonParser parser = JSON.createParser(in)) {
+            StringBuilder csv = new StringBuilder(CHUNK_SIZE + 1024);
+            long rows = 0;
+            JsonToken token;
+            while ((token = nextToken(parser, rows + 1)) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new ImportFormatException("Line " + (rows + 1) + ": expected one JSON object per line");
+                }
+                appendRow(csv, parser, ++rows);
+                
+                if (csv.length() >= CHUNK_SIZE) {
+                    writeChunk(copyIn, csv);
+                    progress.report(rows);
+                }
+            }
+            writeChunk(copyIn, csv);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void appendRow(StringBuilder csv, JsonParser parser, long line) throws IOException {
+        String[] values = new String[COLUMNS.size()];
+        while (nextToken(parser, line) == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = nextToken(parser, line);
+            int column = switch (field) {
+                case "name" -> 0;
+                case "description" -> 1;
+                case "price" -> 2;
+                case "quantity" -> 3;
+                case "categoryId", "category_id" -> 4;
+                default -> -1;
+            };
+            if (column < 0) {
+                // id, createdAt, ... (e.g. from /items/export) are not imported
+                skipChildren(parser, line);
+            } else if (value.isStructStart()) {
+                throw new ImportFormatException("Line " + line + ": " + field + " must be a scalar");
+            } else if (value != JsonToken.VALUE_NULL) {
+                values[column] = parser.getText();
+            }
+        }
+        
+        if (values[0] == null || values[0].isBlank()) {
+            throw new ImportFormatException("Line " + line + ": Name is required");
+        }
+        if (values[2] == null) {
+            throw new ImportFormatException("Line " + line + ": Price is required");
+        }
+        if (values[4] == null) {
+            throw new ImportFormatException("Line " + line + ": Category ID is required");
+        }
+        if (values[3] == null) {
+            // COPY writes NULL rather than the column default
+            values[3] = "0";
+        }
+        
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            appendCsvValue(csv, values[i]);
+        }
+        csv.append('\n');
+    }
+
+    private static JsonToken nextToken(JsonParser parser, long line) throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException e) {
+            throw new ImportFormatException("Line " + line + ": malformed JSON");
+        }
+    }
+
+    private static void skipChildren(JsonParser parser, long line) throws IOException {
+        try {
+            parser.skipChildren();
+        } catch (JsonProcessingException e) {
+            throw new ImportFormatException("Line " + line + ": malformed JSON");
+        }
+    }
+
+    /** Unquoted empty means NULL in COPY CSV, so empty strings are quoted. */
+    private static void appendCsvValue(StringBuilder csv, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.isEmpty() || value.equals("\\.");
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            csv.append(value);
+            return;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+
+    private static void writeChunk(CopyIn copyIn, StringBuilder csv) throws SQLException {
+        if (csv.length() == 0) {
+            return;
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        csv.setLength(0);
+    }
+
+    /** Reads and validates the CSV header line; the rest of the stream is left unread. */
+    private static List<String> readHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.write(b);
+        }
+        String header = line.toString(StandardCharsets.UTF_8).replace("\uFEFF", "").trim();
+        if (header.isEmpty()) {
+            throw new ImportFormatException("CSV header line is required");
+        }
+        
+        List<String> columns = new ArrayList<>();
+        for (String column : header.split(",")) {
+            String name = column.trim().replace("\"", "").toLowerCase(Locale.ROOT);
+            if (!COLUMNS.contains(name)) {
+                throw new ImportFormatException("Unknown CSV column at position " + (columns.size() + 1));
+            }
+            if (columns.contains(name)) {
+                throw new ImportFormatException("Duplicate CSV column at position " + (columns.size() + 1));
+            }
+            columns.add(name);
+        }
+        if (!columns.containsAll(REQUIRED_COLUMNS)) {
+            throw new ImportFormatException("CSV header must include name, price and category_id");
+        }
+        return columns;
+    }
+
+    private static String copySql(List<String> columns) {
+        return "COPY item (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    private static final class Progress {
+
+        private final ProgressListener listener;
+        private final long start = System.nanoTime();
+        private long lastReport = start;
+
+        Progress(ProgressListener listener) {
+            this.listener = listener;
+        }
+
+        void report(long rows) {
+            long now = System.nanoTime();
+            if (now - lastReport < PROGRESS_INTERVAL_NANOS) {
+                return;
+            }
+            lastReport = now;
+            listener.progress(rows, rows * TimeUnit.SECONDS.toNanos(1) / Math.max(1, now - start));
+        }
+    }
+}
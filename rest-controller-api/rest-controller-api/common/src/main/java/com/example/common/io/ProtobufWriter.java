@@ -0,0 +1,277 @@
+package com.example.common.io;
+
+import com.example.common.dto.CategorySummary;
+import com.example.common.dto.ItemSummary;
+import com.example.common.dto.PageResponse;
+import com.example.common.model.Category;
+import com.example.common.model.Item;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Writes the API's own types in the Protocol Buffers wire format of
+ * {@code proto/api.proto}: {@link Item}, {@link Category} and the summaries as
+ * their messages, a {@link PageResponse} of those as {@code Page}. The fields
+ * are encoded by hand with {@link CodedOutputStream}, without generated
+ * message classes, so no intermediate objects are built; a nested message's
+ * length is computed before it is written.
+ *
+ * <p>{@link #canWrite(Object)} follows {@link DirectJsonWriter#canWrite(Object)}.
+ */
+public class ProtobufWriter {
+
+    public static final String MEDIA_TYPE = "application/x-protobuf";
+
+    private static final int BUFFER_BYTES = 8192;
+
+    // Page fields, by row type
+    private static final int PAGE_ITEMS = 1;
+    private static final int PAGE_CATEGORIES = 2;
+    private static final int PAGE_ITEM_SUMMARIES = 3;
+    private static final int PAGE_CATEGORY_SUMMARIES = 4;
+
+    public static boolean supports(Class<?> type) {
+        return DirectJsonWriter.supports(type);
+    }
+
+    public boolean canWrite(Object value) {
+        return DirectJsonWriter.writable(value);
+    }
+
+    public void write(Object value, OutputStream out) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(out, BUFFER_BYTES);
+        writeValue(output, value);
+        output.flush();
+    }
+
+    public byte[] toByteArray(Object value) {
+        byte[] bytes = new byte[size(value)];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            writeValue(output, value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Array sized too small", e);
+        }
+        output.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    /** Encoded size of {@code value} in bytes. */
+    public int size(Object value) {
+        if (value instanceof PageResponse<?> page) {
+            return pageSize(page);
+        }
+        return rowSize(value);
+    }
+
+    private static void writeValue(CodedOutputStream out, Object value) throws IOException {
+        if (value instanceof PageResponse<?> page) {
+            writePage(out, page);
+        } else {
+            writeRow(out, value);
+        }
+    }
+
+    private static int pageSize(PageResponse<?> page) {
+        int size = 0;
+        List<?> content = page.getContent();
+        if (content != null) {
+            for (Object row : content) {
+                int rowSize = rowSize(row);
+                size += CodedOutputStream.computeTagSize(pageField(row))
+                    + CodedOutputStream.computeUInt32SizeNoTag(rowSize) + rowSize;
+            }
+        }
+        size += scalarSize(10, page.getPage());
+        size += scalarSize(11, page.getSize());
+        size += page.getTotalElements() != 0 ? CodedOutputStream.computeInt64Size(12, page.getTotalElements()) : 0;
+        size += scalarSize(13, page.getTotalPages());
+        size += page.isFirst() ? CodedOutputStream.computeBoolSize(14, true) : 0;
+        size += page.isLast() ? CodedOutputStream.computeBoolSize(15, true) : 0;
+        size += page.isHasNext() ? CodedOutputStream.computeBoolSize(16, true) : 0;
+        size += stringSize(17, page.getNextCursor());
+        return size;
+    }
+
+    private static void writePage(CodedOutputStream out, PageResponse<?> page) throws IOException {
+        List<?> content = page.getContent();
+        if (content != null) {
+            for (Object row : content) {
+                out.writeTag(pageField(row), WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(rowSize(row));
+                writeRow(out, row);
+            }
+        }
+        // Scalars at their proto3 default are left out, as protoc-generated code does
+        writeScalar(out, 10, page.getPage());
+        writeScalar(out, 11, page.getSize());
+        if (page.getTotalElements() != 0) {
+            out.writeInt64(12, page.getTotalElements());
+        }
+        writeScalar(out, 13, page.getTotalPages());
+        if (page.isFirst()) {
+            out.writeBool(14, true);
+        }
+        if (page.isLast()) {
+            out.writeBool(15, true);
+        }
+        if (page.isHasNext()) {
+            out.writeBool(16, true);
+        }
+        writeString(out, 17, page.getNextCursor());
+    }
+
+    private static int pageField(Object row) {
+        if (row instanceof Item) {
+            return PAGE_ITEMS;
+        } else if (row instanceof Category) {
+            return PAGE_CATEGORIES;
+        } else if (row instanceof ItemSummary) {
+            return PAGE_ITEM_SUMMARIES;
+        } else if (row instanceof CategorySummary) {
+            return PAGE_CATEGORY_SUMMARIES;
+        }
+        throw new IllegalArgumentException("Not a protobuf page row: " + row);
+    }
+
+    private static int rowSize(Object row) {
+        if (row instanceof Item item) {
+            return int64Size(1, item.getId())
+                + stringSize(2, item.getName())
+                + stringSize(3, item.getDescription())
+                + decimalSize(4, item.getPrice())
+                + int32Size(5, item.getQuantity())
+                + int64Size(6, item.getCategoryId())
+                + dateTimeSize(7, item.getCreatedAt())
+                + dateTimeSize(8, item.getUpdatedAt());
+        } else if (row instanceof Category category) {
+            return int64Size(1, category.getId())
+                + stringSize(2, category.getName())
+                + stringSize(3, category.getDescription())
+                + dateTimeSize(4, category.getCreatedAt())
+                + dateTimeSize(5, category.getUpdatedAt());
+        } else if (row instanceof ItemSummary item) {
+            return int64Size(1, item.id())
+                + stringSize(2, item.name())
+                + decimalSize(3, item.price())
+                + int64Size(4, item.categoryId())
+                + dateTimeSize(5, item.updatedAt());
+        } else if (row instanceof CategorySummary category) {
+            return int64Size(1, category.id())
+                + stringSize(2, category.name())
+                + dateTimeSize(3, category.updatedAt());
+        }
+        throw new IllegalArgumentException("Not writable as protobuf: " + row);
+    }
+
+    private static void writeRow(CodedOutputStream out, Object row) throws IOException {
+        if (row instanceof Item item) {
+            writeInt64(out, 1, item.getId());
+            writeString(out, 2, item.getName());
+            writeString(out, 3, item.getDescription());
+            writeDecimal(out, 4, item.getPrice());
+            writeInt32(out, 5, item.getQuantity());
+            writeInt64(out, 6, item.getCategoryId());
+            writeDateTime(out, 7, item.getCreatedAt());
+            writeDateTime(out, 8, item.getUpdatedAt());
+        } else if (row instanceof Category category) {
+            writeInt64(out, 1, category.getId());
+            writeString(out, 2, category.getName());
+            writeString(out, 3, category.getDescription());
+            writeDateTime(out, 4, category.getCreatedAt());
+            writeDateTime(out, 5, category.getUpdatedAt());
+        } else if (row instanceof ItemSummary item) {
+            writeInt64(out, 1, item.id());
+            writeString(out, 2, item.name());
+            writeDecimal(out, 3, item.price());
+            writeInt64(out, 4, item.categoryId());
+            writeDateTime(out, 5, item.updatedAt());
+        } else if (row instanceof CategorySummary category) {
+            writeInt64(out, 1, category.id());
+            writeString(out, 2, category.name());
+            writeDateTime(out, 3, category.updatedAt());
+        } else {
+            throw new IllegalArgumentException("Not writable as protobuf: " + row);
+        }
+    }
+
+    // Nullable fields are proto3 optional: null is an absent field, anything else is written
+
+    private static int int64Size(int field, Long value) {
+        return value == null ? 0 : CodedOutputStream.computeInt64Size(field, value);
+    }
+
+    private static void writeInt64(CodedOutputStream out, int field, Long value) throws IOException {
+        if (value != null) {
+            out.writeInt64(field, value);
+        }
+    }
+
+    private static int int32Size(int field, Integer value) {
+        return value == null ? 0 : CodedOutputStream.computeInt32Size(field, value);
+    }
+
+    private static void writeInt32(CodedOutputStream out, int field, Integer value) throws IOException {
+        if (value != null) {
+            out.writeInt32(field, value);
+        }
+    }
+
+    /** Page scalars, left out at zero. */
+    private static int scalarSize(int field, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt32Size(field, value);
+    }
+
+    private static void writeScalar(CodedOutputStream out, int field, int value) throws IOException {
+        if (value != 0) {
+            out.writeInt32(field, value);
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value);
+        }
+    }
+
+    /** Decimals as {@link BigDecimal#toString()}, the JSON notation; always ASCII. */
+    private static int decimalSize(int field, BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = value.toString().length();
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(length) + length;
+    }
+
+    private static void writeDecimal(CodedOutputStream out, int field, BigDecimal value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value.toString());
+        }
+    }
+
+    private static int dateTimeSize(int field, LocalDateTime value) {
+        return value == null ? 0 : CodedOutputStream.computeInt64Size(field, micros(value));
+    }
+
+    private static void writeDateTime(CodedOutputStream out, int field, LocalDateTime value) throws IOException {
+        if (value != null) {
+            out.writeInt64(field, micros(value));
+        }
+    }
+
+    /** Microseconds since 1970-01-01T00:00 of the zone-less value; PostgreSQL keeps no finer precision. */
+    private static long micros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.common.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency-adaptive limit on requests in flight, after the gradient algorithm
+ * of Netflix concurrency-limits. Request latencies are averaged per window
+ * (short RTT) and into a slow moving average (long RTT); each window the limit
+ * becomes
+ * <pre>
+ *   limit * clamp(tolerance * longRtt / shortRtt, 0.5, 1) + sqrt(limit)
+ * </pre>
+ * smoothed, so it grows while latency stays near its long-run level and
+ * shrinks once requests queue. A window that used less than half the limit
+ * leaves it unchanged.
+ *
+ * <p>Nothing waits: {@link #tryAcquire} answers at once, and a caller turned
+ * away is expected to reply 503. Reads may fill the whole limit, writes only
+ * {@code writeShare} of it, so under load writes are shed first. Published as
+ * {@code http.concurrency.limit}, {@code http.concurrency.inflight} and
+ * {@code http.concurrency.rejected{priority}}.
+ */
+public class ConcurrencyLimiter implements MeterBinder {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOWS = 100;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    public enum Priority { READ, WRITE }
+
+    /**
+     * Limit bounds and tuning: {@code rttTolerance} is how far the short RTT may
+     * exceed the long one before the limit shrinks, {@code writeShare} the part
+     * of the limit writes may use.
+     */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, long windowMillis,
+                           double rttTolerance, double writeShare) {
+    }
+
+    /** One admitted request; {@link #release()} it exactly once when the response is done. */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inflightAtStart;
+
+        private Permit(int inflightAtStart) {
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        public void release() {
+            inflight.decrementAndGet();
+            sample(System.nanoTime() - startNanos, inflightAtStart);
+        }
+    }
+
+    private final Settings settings;
+    private final long windowNanos;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejectedReads = new LongAdder();
+    private final LongAdder rejectedWrites = new LongAdder();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimate;
+    private double longRttNanos = Double.NaN;
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInflight;
+
+    public ConcurrencyLimiter(Settings settings) {
+        if (settings.minLimit() < 1 || settings.maxLimit() < settings.minLimit()) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.settings = settings;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(settings.windowMillis());
+        this.estimate = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), settings.initialLimit()));
+        this.limit = (int) estimate;
+    }
+
+    /** A permit, or null when the request is over the limit for its priority. */
+    public Permit tryAcquire(Priority priority) {
+        int allowed = priority == Priority.READ
+            ? limit
+            : Math.max(1, (int) (limit * settings.writeShare()));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                (priority == Priority.READ ? rejectedReads : rejectedWrites).increment();
+                return null;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int inflightAtStart) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtStart);
+
+        long now = System.nanoTime();
+        if (now - windowStart < windowNanos || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowSamples;
+        boolean appLimited = windowMaxInflight < estimate / 2;
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+
+        longRttNanos = Double.isNaN(longRttNanos)
+            ? shortRtt
+            : longRttNanos + (shortRtt - longRttNanos) / LONG_WINDOWS;
+        if (longRttNanos / shortRtt > 2) {
+            // Load dropped: let the long RTT catch up instead of growing on a stale value
+            longRttNanos *= 0.95;
+        }
+        if (appLimited) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, settings.rttTolerance() * longRttNanos / shortRtt));
+        double target = estimate * gradient + Math.sqrt(estimate);
+        estimate = Math.max(settings.minLimit(),
+            Math.min(settings.maxLimit(), estimate * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimate;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.concurrency.limit", this, ConcurrencyLimiter::limit)
+            .description("Requests allowed in flight by the adaptive concurrency limiter")
+            .register(registry);
+        Gauge.builder("http.concurrency.inflight", this, ConcurrencyLimiter::inflight)
+            .description("Requests in flight under the concurrency limiter")
+            .register(registry);
+        registerRejected(registry, "read", rejectedReads);
+        registerRejected(registry, "write", rejectedWrites);
+    }
+
+    private static void registerRejected(MeterRegistry registry, String priority, LongAdder count) {
+        FunctionCounter.builder("http.concurrency.rejected", count, LongAdder::sum)
+            .description("Requests answered 503 by the concurrency limiter")
+            .tag("priority", priority)
+            .register(registry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bytes allocated per request, as the {@code http.server.allocation}
+ * distribution summary (percentile histogram) tagged with method and route
+ * template. The web adapter reads the JVM's allocation counter of the serving
+ * thread before and after the request ({@link #start()}, {@link #finish}), so
+ * the figure covers routing, repository calls, serialization and write-out,
+ * but nothing handed to another thread (async exports are not recorded).
+ */
+public class RequestAllocations implements MeterBinder {
+
+    private static final double MIN_BYTES = 1024;
+    private static final double MAX_BYTES = 256.0 * 1024 * 1024;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final ConcurrentMap<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public RequestAllocations() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM does not count allocated bytes per thread");
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+        this.threads = bean;
+    }
+
+    /** Allocation counter of the current thread, to pass to {@link #finish}. */
+    public long start() {
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /** Records what the current thread allocated since {@code start}; a request without a route is dropped. */
+    public void finish(String method, String route, long start) {
+        MeterRegistry meters = registry;
+        if (meters == null || route == null) {
+            return;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - start;
+        summaries.computeIfAbsent(method + ' ' + route, key -> DistributionSummary.builder("http.server.allocation")
+                .description("Bytes allocated on the serving thread per request")
+                .baseUnit("bytes")
+                .tag("method", method)
+                .tag("route", route)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_BYTES)
+                .maximumExpectedValue(MAX_BYTES)
+                .register(meters))
+            .record(allocated);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+}
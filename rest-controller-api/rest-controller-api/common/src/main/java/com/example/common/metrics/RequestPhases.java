@@ -0,0 +1,157 @@
+package com.example.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the time of a request goes, as the {@code http.server.phase} timer
+ * (percentile histogram) tagged with the route template, the phase and, for
+ * repository calls, the repository method:
+ * <ul>
+ *   <li>{@code connection}: waiting for a pooled connection</li>
+ *   <li>{@code repository}: one repository method, inside its transaction, less
+ *       any connection wait recorded while it ran</li>
+ *   <li>{@code serialization}: rendering the response body, less its writes</li>
+ *   <li>{@code write}: writing and flushing the body to the client</li>
+ *   <li>{@code framework}: everything else (routing, binding, handler code,
+ *       commit), recorded once per request</li>
+ * </ul>
+ * The web adapter brackets each request with {@link #start()} and
+ * {@link #finish}. The database and serialization hooks call the static
+ * {@link #record} on the request thread; outside a request that is a no-op.
+ */
+public class RequestPhases implements MeterBinder {
+
+    public enum Phase {
+        CONNECTION, REPOSITORY, SERIALIZATION, WRITE, FRAMEWORK;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+    private static final String NO_CALL = "none";
+
+    /** The phases of one request so far. */
+    public static final class Recording {
+
+        private final long startNanos = System.nanoTime();
+        private Phase[] phases = new Phase[8];
+        private String[] calls = new String[8];
+        private long[] nanos = new long[8];
+        private long[] ends = new long[8];
+        private int size;
+        private String route;
+
+        private Recording() {
+        }
+
+        public void route(String route) {
+            this.route = route;
+        }
+
+        private void add(Phase phase, String call, long duration) {
+            if (size == phases.length) {
+                phases = Arrays.copyOf(phases, size * 2);
+                calls = Arrays.copyOf(calls, size * 2);
+                nanos = Arrays.copyOf(nanos, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            long end = System.nanoTime();
+            if (phase == Phase.REPOSITORY) {
+                // A connection taken inside the call (lazily, as with the replica
+                // routing) is its own phase; the request's phases must not overlap
+                long start = end - duration;
+                for (int i = size - 1; i >= 0 && ends[i] >= start; i--) {
+                    if (phases[i] == Phase.CONNECTION) {
+                        duration -= nanos[i];
+                    }
+                }
+            }
+            phases[size] = phase;
+            calls[size] = call;
+            nanos[size] = Math.max(0, duration);
+            ends[size] = end;
+            size++;
+        }
+    }
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    public static void record(Phase phase, long nanos) {
+        record(phase, NO_CALL, nanos);
+    }
+
+    public static void record(Phase phase, String call, long nanos) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.add(phase, call, nanos);
+        }
+    }
+
+    /** Sets the route template of the current request, for adapters that learn it midway. */
+    public static void route(String route) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.route(route);
+        }
+    }
+
+    public Recording start() {
+        Recording recording = new Recording();
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    /** Publishes the request's phases; a request that matched no route is dropped. */
+    public void finish(Recording recording) {
+        CURRENT.remove();
+        MeterRegistry meters = registry;
+        if (meters == null || recording.route == null) {
+            return;
+        }
+        long measured = 0;
+        for (int i = 0; i < recording.size; i++) {
+            timer(meters, recording.route, recording.phases[i], recording.calls[i])
+                .record(recording.nanos[i], TimeUnit.NANOSECONDS);
+            measured += recording.nanos[i];
+        }
+        long rest = System.nanoTime() - recording.startNanos - measured;
+        timer(meters, recording.route, Phase.FRAMEWORK, NO_CALL)
+            .record(Math.max(0, rest), TimeUnit.NANOSECONDS);
+    }
+
+    /** Ends the request without publishing it, e.g. when it went async. */
+    public void discard() {
+        CURRENT.remove();
+    }
+
+    private Timer timer(MeterRegistry meters, String route, Phase phase, String call) {
+        return timers.computeIfAbsent(route + ' ' + phase.tag + ' ' + call, key -> Timer.builder("http.server.phase")
+            .description("Time spent per request phase")
+            .tag("route", route)
+            .tag("phase", phase.tag)
+            .tag("call", call)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(100_000))
+            .maximumExpectedValue(Duration.ofSeconds(10))
+            .register(meters));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+}
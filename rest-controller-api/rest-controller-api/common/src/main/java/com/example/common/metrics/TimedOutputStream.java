@@ -0,0 +1,60 @@
+package com.example.common.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes writes straight through to the response and sums the time they take,
+ * so a serializer writing into it can be timed apart from the write-out
+ * without rendering the body into a buffer first.
+ */
+public class TimedOutputStream extends FilterOutputStream {
+
+    private long nanos;
+
+    public TimedOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    /** Time spent in write and flush so far. */
+    public long nanos() {
+        return nanos;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        long start = System.nanoTime();
+        try {
+            out.write(b);
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        try {
+            out.write(b, off, len);
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        long start = System.nanoTime();
+        try {
+            out.flush();
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    // The response stream belongs to the container
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+
+/**
+ * Virtual thread pinning, from the JFR events the JDK already emits:
+ * {@code jvm.threads.virtual.pinned} times every {@code jdk.VirtualThreadPinned}
+ * event (a virtual thread that blocked while holding a monitor or in native code,
+ * keeping its carrier thread busy), {@code jvm.threads.virtual.submit.failed}
+ * counts virtual threads that could not be scheduled. Only events longer than
+ * the threshold are recorded, which keeps the stream cheap.
+ */
+public class VirtualThreadMetrics implements MeterBinder, AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+    private final Duration pinnedThreshold;
+    private RecordingStream stream;
+
+    public VirtualThreadMetrics(Duration pinnedThreshold) {
+        this.pinnedThreshold = pinnedThreshold;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        if (stream != null) {
+            return;
+        }
+        Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads spent pinned to their carrier thread while blocked")
+            .register(registry);
+        Counter submitFailed = Counter.builder("jvm.threads.virtual.submit.failed")
+            .description("Virtual threads that could not be started or unparked")
+            .register(registry);
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(pinnedThreshold);
+        stream.enable(SUBMIT_FAILED_EVENT);
+        stream.onEvent(PINNED_EVENT, event -> pinned.record(event.getDuration()));
+        stream.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailed.increment());
+        stream.startAsync();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
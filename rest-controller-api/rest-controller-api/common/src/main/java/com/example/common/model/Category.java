@@ -8,7 +8,7 @@ import java.util.Objects;
 @Entity
 @Table(name = "category")
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class Category {
+public class Category implements Versioned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -9,7 +9,7 @@ import java.util.Objects;
 @Entity
 @Table(name = "item")
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class Item {
+public class Item implements Versioned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
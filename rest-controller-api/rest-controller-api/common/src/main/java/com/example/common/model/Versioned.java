@@ -0,0 +1,14 @@
+package com.example.common.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity whose {@code updated_at} column changes on every write, which makes
+ * it usable as an HTTP validator.
+ */
+public interface Versioned {
+
+    Long getId();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,135 @@
+package com.example.common.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Flight Recorder recordings of a fixed length, started on demand. Each one
+ * runs with a JDK settings file ({@code default}, about 1% overhead, or
+ * {@code profile}, which adds allocation and lock profiling) and is dumped to
+ * {@code <directory>/<prefix>-<start time>-<id>.jfr} when its window ends. One
+ * recording runs at a time; the last {@value #KEPT} stay listed, older files
+ * are left on disk.
+ */
+public class JfrRecordings implements AutoCloseable {
+
+    private static final int KEPT = 10;
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /** A recording as listed by the endpoint; {@code sizeBytes} is null until the file is written. */
+    public record Info(long id, String name, String state, String settings, String duration,
+                       Instant startTime, String file, Long sizeBytes) {
+    }
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final String prefix;
+    // Guarded by this, newest first
+    private final Deque<Entry> recordings = new ArrayDeque<>();
+
+    public JfrRecordings(Path directory, Duration maxDuration, String prefix) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Starts a recording of {@code duration}.
+     *
+     * @throws IllegalArgumentException for a duration outside (0, max] or an unknown settings name
+     * @throws IllegalStateException    while another recording is running
+     */
+    public synchronized Info start(Duration duration, String settings) throws IOException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be between 0 and " + maxDuration);
+        }
+        for (Entry entry : recordings) {
+            if (entry.recording.getState() == RecordingState.RUNNING || entry.recording.getState() == RecordingState.DELAYED) {
+                throw new IllegalStateException("Recording " + entry.recording.getId() + " is still running");
+            }
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (ParseException | IOException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings);
+        }
+
+        Files.createDirectories(directory);
+        Recording recording = new Recording(configuration);
+        // The id keeps two recordings started within a second apart
+        String name = prefix + "-" + LocalDateTime.now().format(NAME) + "-" + recording.getId();
+        Path file = directory.resolve(name + ".jfr");
+        try {
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.setDuration(duration);
+            recording.setDestination(file);
+            recording.start();
+        } catch (IOException | RuntimeException e) {
+            recording.close();
+            throw e;
+        }
+
+        recordings.addFirst(new Entry(recording, settings, file));
+        while (recordings.size() > KEPT) {
+            recordings.removeLast().recording.close();
+        }
+        return recordings.getFirst().info();
+    }
+
+    public synchronized List<Info> list() {
+        return recordings.stream().map(Entry::info).toList();
+    }
+
+    /** The dump of a finished recording. */
+    public synchronized Optional<Path> file(long id) {
+        return recordings.stream()
+            .filter(entry -> entry.recording.getId() == id && entry.finished())
+            .map(entry -> entry.file)
+            .findFirst();
+    }
+
+    @Override
+    public synchronized void close() {
+        // Running recordings are stopped, which still dumps them to their destination
+        recordings.forEach(entry -> entry.recording.close());
+        recordings.clear();
+    }
+
+    private record Entry(Recording recording, String settings, Path file) {
+
+        boolean finished() {
+            RecordingState state = recording.getState();
+            return (state == RecordingState.STOPPED || state == RecordingState.CLOSED) && Files.isRegularFile(file);
+        }
+
+        Info info() {
+            Long size = null;
+            if (finished()) {
+                try {
+                    size = Files.size(file);
+                } catch (IOException e) {
+                    // deleted from disk meanwhile
+                }
+            }
+            return new Info(recording.getId(), recording.getName(), recording.getState().name().toLowerCase(Locale.ROOT),
+                settings, recording.getDuration().toString(), recording.getStartTime(), file.toString(), size);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategoryIdSetTest {
+
+    @Test
+    void initialIdsAreKnownWithoutFallback() {
+        CategoryIdSet set = new CategoryIdSet(List.of(1L, 63L, 64L, 5000L));
+
+        assertEquals(4, set.size());
+        assertTrue(set.containsKnown(1));
+        assertTrue(set.containsKnown(63));
+        assertTrue(set.containsKnown(64));
+        assertTrue(set.contains(5000, id -> {
+            throw new AssertionError("fallback called for a known id");
+        }));
+        assertFalse(set.containsKnown(2));
+        assertFalse(set.containsKnown(100_000));
+    }
+
+    @Test
+    void idFoundByFallbackIsRemembered() {
+        CategoryIdSet set = new CategoryIdSet(List.of());
+        AtomicInteger checks = new AtomicInteger();
+
+        assertTrue(set.contains(42, id -> checks.incrementAndGet() > 0));
+        assertTrue(set.contains(42, id -> checks.incrementAndGet() > 0));
+
+        assertEquals(1, checks.get());
+        assertTrue(set.containsKnown(42));
+    }
+
+    @Test
+    void idMissingInFallbackIsNotRemembered() {
+        CategoryIdSet set = new CategoryIdSet(List.of());
+
+        assertFalse(set.contains(42, id -> false));
+        assertFalse(set.containsKnown(42));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void removedIdIsCheckedAgain() {
+        CategoryIdSet set = new CategoryIdSet(List.of(7L));
+
+        set.remove(7);
+
+        assertFalse(set.containsKnown(7));
+        assertFalse(set.contains(7, id -> false));
+    }
+
+    @Test
+    void removalDuringCheckIsNotUndone() {
+        CategoryIdSet set = new CategoryIdSet(List.of());
+
+        // The row was there when checked, then deleted before the check returned
+        assertTrue(set.contains(9, id -> {
+            set.remove(id);
+            return true;
+        }));
+
+        assertFalse(set.containsKnown(9));
+    }
+
+    @Test
+    void addCheckedIgnoresStaleStamp() {
+        CategoryIdSet set = new CategoryIdSet(List.of());
+
+        long stamp = set.stamp();
+        set.remove(3);
+        set.addChecked(3, stamp);
+        assertFalse(set.containsKnown(3));
+
+        set.addChecked(3, set.stamp());
+        assertTrue(set.containsKnown(3));
+    }
+
+    @Test
+    void idsOutsideBitmapAlwaysUseFallback() {
+        CategoryIdSet set = new CategoryIdSet(List.of(1L << 24, -1L));
+        AtomicInteger checks = new AtomicInteger();
+
+        assertEquals(0, set.size());
+        assertTrue(set.contains(1L << 24, id -> checks.incrementAndGet() > 0));
+        assertTrue(set.contains(1L << 24, id -> checks.incrementAndGet() > 0));
+        assertEquals(2, checks.get());
+    }
+}
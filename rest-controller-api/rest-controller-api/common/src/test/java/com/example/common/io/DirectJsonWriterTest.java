@@ -0,0 +1,157 @@
+package com.example.common.io;
+
+import com.example.common.dto.CategorySummary;
+import com.example.common.dto.ItemSummary;
+import com.example.common.dto.PageResponse;
+import com.example.common.model.Category;
+import com.example.common.model.Item;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The writer's output must match the mapper Spring Boot configures, byte for byte. */
+class DirectJsonWriterTest {
+
+    // As JacksonAutoConfiguration builds it: the builder's defaults plus Boot's feature defaults
+    private static final ObjectMapper BOOT_MAPPER = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+            SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+        .build();
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+
+    private final DirectJsonWriter writer = new DirectJsonWriter();
+
+    private static Item item(String name, String description, BigDecimal price, LocalDateTime updatedAt) {
+        Item item = new Item(name, description, price, 42, 7L);
+        item.setId(1L);
+        item.setCreatedAt(CREATED_AT);
+        item.setUpdatedAt(updatedAt);
+        return item;
+    }
+
+    private void assertSameAsJackson(Object value) throws IOException {
+        assertTrue(writer.canWrite(value));
+        // As bytes, like the HTTP converters: Jackson's UTF-8 generator escapes surrogates
+        byte[] expected = BOOT_MAPPER.writeValueAsBytes(value);
+        Supplier<String> json = () -> new String(expected, StandardCharsets.UTF_8);
+        try (DirectJsonWriter.Rendered rendered = writer.render(value)) {
+            assertArrayEquals(expected, rendered.toByteArray(), json);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(value, out);
+        assertArrayEquals(expected, out.toByteArray(), json);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "plain",
+        "quote \" and backslash \\ and slash /",
+        "\b\f\n\r\t",
+        "\u0000\u0001\u001f\u007f",
+        "accents é, ß, 漢字",
+        "emoji 😀 pair",
+        "lone high \uD800 and lone low \uDC00",
+        "line separator \u2028 and paragraph separator \u2029",
+        "</script>&'<"
+    })
+    void escapesStringsAsJackson(String text) throws IOException {
+        assertSameAsJackson(item(text, text, new BigDecimal("1.00"), CREATED_AT));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "0", "0.00", "-0.01", "1", "999.99", "-12345.6789", "0.000001", "0.0000001",
+        "1E+3", "1.5E+10", "-2E-8", "123456789012345678", "1234567890123456789",
+        "99999999999999999999.99", "-9223372036854775808", "9223372036854775807.5"
+    })
+    void writesDecimalsAsJackson(String price) throws IOException {
+        assertSameAsJackson(item("n", "d", new BigDecimal(price), CREATED_AT));
+    }
+
+    @Test
+    void writesDateTimesAsJackson() throws IOException {
+        List<LocalDateTime> times = List.of(
+            LocalDateTime.of(2024, 1, 15, 10, 30),
+            LocalDateTime.of(2024, 1, 15, 10, 30, 5),
+            LocalDateTime.of(2024, 1, 15, 10, 30, 5, 100_000_000),
+            LocalDateTime.of(2024, 1, 15, 10, 30, 5, 120_000_000),
+            LocalDateTime.of(2024, 1, 15, 10, 30, 5, 1),
+            LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_999),
+            LocalDateTime.of(1, 1, 1, 0, 0),
+            LocalDateTime.of(-1, 6, 1, 0, 0),
+            LocalDateTime.of(10_000, 6, 1, 0, 0),
+            LocalDateTime.MIN,
+            LocalDateTime.MAX);
+        for (LocalDateTime time : times) {
+            assertSameAsJackson(item("n", "d", BigDecimal.ONE, time));
+        }
+    }
+
+    @Test
+    void writesNullFieldsAsJackson() throws IOException {
+        assertSameAsJackson(new Item());
+        assertSameAsJackson(new Category());
+        assertSameAsJackson(new ItemSummary(null, null, null, null, null));
+        assertSameAsJackson(new CategorySummary(null, null, null));
+    }
+
+    @Test
+    void writesEveryTypeAsJackson() throws IOException {
+        Category category = new Category("Tools", "Hand tools");
+        category.setId(3L);
+        category.setCreatedAt(CREATED_AT);
+        category.setUpdatedAt(CREATED_AT.plusDays(1));
+
+        assertSameAsJackson(item("Hammer", "Steel", new BigDecimal("19.99"), CREATED_AT.plusHours(1)));
+        assertSameAsJackson(category);
+        assertSameAsJackson(new ItemSummary(Long.MIN_VALUE, "x", new BigDecimal("-0.5"), Long.MAX_VALUE, CREATED_AT));
+        assertSameAsJackson(new CategorySummary(2L, "y", CREATED_AT));
+    }
+
+    @Test
+    void writesPagesAsJackson() throws IOException {
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            Item item = item("Item " + id, "Description " + id, BigDecimal.valueOf(id * 1999, 2), CREATED_AT.plusSeconds(id));
+            item.setId(id);
+            items.add(item);
+        }
+
+        assertSameAsJackson(new PageResponse<>(items, 0, 5, 100));
+        assertSameAsJackson(new PageResponse<>(List.of(), 3, 20, 0));
+        assertSameAsJackson(new PageResponse<Item>(null, 0, 20, 0));
+        assertSameAsJackson(PageResponse.ofSlice(items, 2, 5, true));
+        assertSameAsJackson(PageResponse.ofCursor(items, 4, true, Item::getId));
+        assertSameAsJackson(PageResponse.ofCursor(items, 5, false, Item::getId));
+        assertSameAsJackson(new PageResponse<>(List.of(new CategorySummary(1L, "a", CREATED_AT),
+            new ItemSummary(2L, "b", BigDecimal.TEN, 1L, CREATED_AT)), 0, 2, 2));
+    }
+
+    @Test
+    void leavesOtherValuesToJackson() {
+        assertFalse(writer.canWrite(null));
+        assertFalse(writer.canWrite(Map.of("id", 1)));
+        assertFalse(writer.canWrite(new PageResponse<>(List.of("text"), 0, 1, 1)));
+        assertFalse(writer.canWrite(new PageResponse<>(List.of(new PageResponse<>(List.of(), 0, 1, 0)), 0, 1, 1)));
+        assertFalse(DirectJsonWriter.supports(String.class));
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.common.io;
+
+import com.example.common.dto.CategorySummary;
+import com.example.common.dto.ItemSummary;
+import com.example.common.dto.PageResponse;
+import com.example.common.model.Category;
+import com.example.common.model.Item;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/** Decodes the writer's output field by field against {@code proto/api.proto}. */
+class ProtobufWriterTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_789);
+    // 2024-01-15T10:30:00.123456 in microseconds; nanoseconds are cut
+    private static final long CREATED_AT_MICROS = 1_705_314_600_123_456L;
+
+    private final ProtobufWriter writer = new ProtobufWriter();
+
+    /** Field number to its values: a Long for varints, a ByteString for length-delimited fields. */
+    private static Map<Integer, List<Object>> decode(ByteString bytes) throws IOException {
+        Map<Integer, List<Object>> fields = new LinkedHashMap<>();
+        CodedInputStream in = bytes.newCodedInput();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            Object value = switch (WireFormat.getTagWireType(tag)) {
+                case WireFormat.WIRETYPE_VARINT -> in.readInt64();
+                case WireFormat.WIRETYPE_LENGTH_DELIMITED -> in.readBytes();
+                default -> fail("Unexpected wire type in tag " + tag);
+            };
+            fields.computeIfAbsent(WireFormat.getTagFieldNumber(tag), k -> new ArrayList<>()).add(value);
+        }
+        return fields;
+    }
+
+    private Map<Integer, List<Object>> encode(Object value) throws IOException {
+        assertTrue(writer.canWrite(value));
+        byte[] bytes = writer.toByteArray(value);
+        assertEquals(bytes.length, writer.size(value));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(value, out);
+        assertArrayEquals(bytes, out.toByteArray());
+        return decode(ByteString.copyFrom(bytes));
+    }
+
+    private static Object only(Map<Integer, List<Object>> fields, int field) {
+        List<Object> values = fields.get(field);
+        assertEquals(1, values == null ? 0 : values.size(), "values of field " + field);
+        return values.get(0);
+    }
+
+    private static String text(Map<Integer, List<Object>> fields, int field) {
+        return ((ByteString) only(fields, field)).toStringUtf8();
+    }
+
+    @Test
+    void writesItemFields() throws IOException {
+        Item item = new Item("Hammer 😀 \"é\"", "Steel\nhead", new BigDecimal("1.5E+3"), -3, 7L);
+        item.setId(Long.MAX_VALUE);
+        item.setCreatedAt(CREATED_AT);
+        item.setUpdatedAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59));
+
+        Map<Integer, List<Object>> fields = encode(item);
+
+        assertEquals(Long.MAX_VALUE, only(fields, 1));
+        assertEquals("Hammer 😀 \"é\"", text(fields, 2));
+        assertEquals("Steel\nhead", text(fields, 3));
+        assertEquals("1.5E+3", text(fields, 4));
+        assertEquals(-3L, only(fields, 5));
+        assertEquals(7L, only(fields, 6));
+        assertEquals(CREATED_AT_MICROS, only(fields, 7));
+        assertEquals(-1_000_000L, only(fields, 8));
+    }
+
+    @Test
+    void leavesNullFieldsOut() throws IOException {
+        assertEquals(Map.of(), encode(new Item()));
+        assertEquals(Map.of(), encode(new Category()));
+        assertEquals(Map.of(), encode(new ItemSummary(null, null, null, null, null)));
+
+        Item zero = new Item("", null, BigDecimal.ZERO, 0, 0L);
+        zero.setId(0L);
+        // Optional fields are written when set, defaults included
+        assertEquals(Map.of(1, List.of(0L), 2, List.of(ByteString.EMPTY), 4, List.of(ByteString.copyFromUtf8("0")),
+            5, List.of(0L), 6, List.of(0L)), encode(zero));
+    }
+
+    @Test
+    void writesCategoryAndSummaries() throws IOException {
+        Category category = new Category("Tools", "Hand tools");
+        category.setId(3L);
+        category.setCreatedAt(CREATED_AT);
+        category.setUpdatedAt(CREATED_AT);
+        Map<Integer, List<Object>> fields = encode(category);
+        assertEquals(3L, only(fields, 1));
+        assertEquals("Tools", text(fields, 2));
+        assertEquals("Hand tools", text(fields, 3));
+        assertEquals(CREATED_AT_MICROS, only(fields, 4));
+        assertEquals(CREATED_AT_MICROS, only(fields, 5));
+
+        fields = encode(new ItemSummary(4L, "x", new BigDecimal("-0.50"), 9L, CREATED_AT));
+        assertEquals(4L, only(fields, 1));
+        assertEquals("x", text(fields, 2));
+        assertEquals("-0.50", text(fields, 3));
+        assertEquals(9L, only(fields, 4));
+        assertEquals(CREATED_AT_MICROS, only(fields, 5));
+
+        fields = encode(new CategorySummary(5L, "y", CREATED_AT));
+        assertEquals(List.of(1, 2, 3), List.copyOf(fields.keySet()));
+    }
+
+    @Test
+    void writesPageRowsInTheirTypedField() throws IOException {
+        List<Object> rows = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Item item = new Item("Item " + id, "d", BigDecimal.valueOf(id), 1, 1L);
+            item.setId(id);
+            rows.add(item);
+        }
+        rows.add(new CategorySummary(9L, "c", CREATED_AT));
+
+        Map<Integer, List<Object>> fields = encode(new PageResponse<>(rows, 2, 4, 30));
+
+        assertEquals(3, fields.get(1).size());
+        for (int i = 0; i < 3; i++) {
+            Map<Integer, List<Object>> item = decode((ByteString) fields.get(1).get(i));
+            assertEquals(i + 1L, only(item, 1));
+            assertEquals("Item " + (i + 1), text(item, 2));
+        }
+        assertEquals(9L, only(decode((ByteString) only(fields, 4)), 1));
+        assertEquals(2L, only(fields, 10));
+        assertEquals(4L, only(fields, 11));
+        assertEquals(30L, only(fields, 12));
+        assertEquals(8L, only(fields, 13));
+        assertFalse(fields.containsKey(14), "first is false");
+        assertFalse(fields.containsKey(15), "last is false");
+        assertEquals(1L, only(fields, 16));
+        assertFalse(fields.containsKey(17), "no cursor");
+    }
+
+    @Test
+    void leavesPageDefaultsOut() throws IOException {
+        Map<Integer, List<Object>> fields = encode(PageResponse.ofSlice(List.of(), 0, 20, false));
+        // totals are -1, first and last true
+        assertEquals(List.of(11, 12, 13, 14, 15), List.copyOf(fields.keySet()));
+        assertEquals(-1L, only(fields, 12));
+
+        Item item = new Item("a", "b", BigDecimal.ONE, 1, 1L);
+        item.setId(41L);
+        Item next = new Item("c", "d", BigDecimal.ONE, 1, 1L);
+        next.setId(42L);
+        fields = encode(PageResponse.ofCursor(List.of(item, next), 1, true, Item::getId));
+        assertEquals(PageResponse.ofCursor(List.of(item, next), 1, true, Item::getId).getNextCursor(), text(fields, 17));
+    }
+
+    @Test
+    void followsTheJsonWriterOnWhatItSupports() {
+        assertFalse(writer.canWrite(null));
+        assertFalse(writer.canWrite("text"));
+        assertFalse(writer.canWrite(new PageResponse<>(List.of(1), 0, 1, 1)));
+        assertTrue(ProtobufWriter.supports(Item.class));
+        assertFalse(ProtobufWriter.supports(Map.class));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.common.limit;
+
+import com.example.common.limit.ConcurrencyLimiter.Permit;
+import com.example.common.limit.ConcurrencyLimiter.Priority;
+import com.example.common.limit.ConcurrencyLimiter.Settings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+    private static ConcurrencyLimiter limiter(int initial) {
+        // A window closes after every 10 samples
+        return new ConcurrencyLimiter(new Settings(initial, 1, 1000, 0, 1.5, 0.75));
+    }
+
+    private static List<Permit> acquire(ConcurrencyLimiter limiter, int count) {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.tryAcquire(Priority.READ));
+        }
+        return permits;
+    }
+
+    /** Releases the permits taken last first, so the window sees the highest in-flight count. */
+    private static void release(List<Permit> permits, int count) {
+        for (int i = 0; i < count; i++) {
+            permits.remove(permits.size() - 1).release();
+        }
+    }
+
+    @Test
+    void readsFillTheLimitAndWritesTheirShare() {
+        ConcurrencyLimiter limiter = limiter(8);
+
+        for (int i = 0; i < 6; i++) {
+            assertNotNull(limiter.tryAcquire(Priority.WRITE));
+        }
+        assertNull(limiter.tryAcquire(Priority.WRITE));
+        assertNotNull(limiter.tryAcquire(Priority.READ));
+        assertNotNull(limiter.tryAcquire(Priority.READ));
+        assertNull(limiter.tryAcquire(Priority.READ));
+        assertEquals(8, limiter.inflight());
+    }
+
+    @Test
+    void releaseFreesThePermit() {
+        ConcurrencyLimiter limiter = limiter(1);
+
+        Permit permit = limiter.tryAcquire(Priority.READ);
+        assertNull(limiter.tryAcquire(Priority.READ));
+        permit.release();
+
+        assertEquals(0, limiter.inflight());
+        assertNotNull(limiter.tryAcquire(Priority.READ));
+    }
+
+    @Test
+    void writesGetAtLeastOnePermit() {
+        ConcurrencyLimiter limiter = limiter(1);
+
+        assertNotNull(limiter.tryAcquire(Priority.WRITE));
+    }
+
+    @Test
+    void rejectionsAreCountedByPriority() {
+        ConcurrencyLimiter limiter = limiter(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        limiter.tryAcquire(Priority.READ);
+        limiter.tryAcquire(Priority.READ);
+        limiter.tryAcquire(Priority.WRITE);
+        limiter.tryAcquire(Priority.WRITE);
+
+        assertEquals(2, registry.get("http.concurrency.rejected").tag("priority", "write").functionCounter().count());
+        assertEquals(1, registry.get("http.concurrency.rejected").tag("priority", "read").functionCounter().count());
+        assertEquals(1, registry.get("http.concurrency.inflight").gauge().value());
+        assertEquals(1, registry.get("http.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void limitGrowsWhileSaturatedAtSteadyLatency() {
+        ConcurrencyLimiter limiter = limiter(100);
+
+        release(acquire(limiter, 100), 10);
+
+        assertTrue(limiter.limit() > 100, "limit " + limiter.limit());
+    }
+
+    @Test
+    void limitStaysWhenMostOfItIsUnused() {
+        ConcurrencyLimiter limiter = limiter(100);
+
+        for (int i = 0; i < 30; i++) {
+            limiter.tryAcquire(Priority.READ).release();
+        }
+
+        assertEquals(100, limiter.limit());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() throws InterruptedException {
+        ConcurrencyLimiter limiter = limiter(100);
+        release(acquire(limiter, 100), 100);
+        int before = limiter.limit();
+
+        List<Permit> slow = acquire(limiter, before);
+        Thread.sleep(50);
+        release(slow, 10);
+
+        assertTrue(limiter.limit() < before, "limit " + limiter.limit() + " after " + before);
+    }
+
+    @Test
+    void rejectsInconsistentBounds() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ConcurrencyLimiter(new Settings(10, 0, 100, 100, 1.5, 0.75)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ConcurrencyLimiter(new Settings(10, 20, 10, 100, 1.5, 0.75)));
+    }
+}
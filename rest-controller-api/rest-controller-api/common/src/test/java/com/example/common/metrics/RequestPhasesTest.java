@@ -0,0 +1,89 @@
+package com.example.common.metrics;
+
+import com.example.common.metrics.RequestPhases.Phase;
+import com.example.common.metrics.RequestPhases.Recording;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestPhasesTest {
+
+    private static final String CALL = "ItemRepository.findById";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestPhases requestPhases = new RequestPhases();
+
+    @BeforeEach
+    void bind() {
+        requestPhases.bindTo(registry);
+    }
+
+    private double totalNanos(Phase phase, String call) {
+        return registry.get("http.server.phase")
+            .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+            .tag("call", call)
+            .timer()
+            .totalTime(TimeUnit.NANOSECONDS);
+    }
+
+    @Test
+    void repositoryCallLeavesOutTheConnectionTakenInsideIt() {
+        Recording recording = requestPhases.start();
+        recording.route("/items/{id}");
+        RequestPhases.record(Phase.CONNECTION, 400_000);
+        RequestPhases.record(Phase.REPOSITORY, CALL, TimeUnit.SECONDS.toNanos(1));
+        requestPhases.finish(recording);
+
+        assertEquals(400_000, totalNanos(Phase.CONNECTION, "none"));
+        assertEquals(TimeUnit.SECONDS.toNanos(1) - 400_000, totalNanos(Phase.REPOSITORY, CALL));
+    }
+
+    @Test
+    void repositoryCallKeepsTimeOfAConnectionTakenBeforeIt() throws InterruptedException {
+        Recording recording = requestPhases.start();
+        recording.route("/items/{id}");
+        RequestPhases.record(Phase.CONNECTION, 400_000);
+        Thread.sleep(5);
+        RequestPhases.record(Phase.REPOSITORY, CALL, 1_000_000);
+        requestPhases.finish(recording);
+
+        assertEquals(1_000_000, totalNanos(Phase.REPOSITORY, CALL));
+    }
+
+    @Test
+    void recordsNothingOutsideARequest() {
+        assertFalse(RequestPhases.active());
+        RequestPhases.record(Phase.REPOSITORY, CALL, 1_000_000);
+
+        Recording recording = requestPhases.start();
+        assertTrue(RequestPhases.active());
+        requestPhases.finish(recording);
+
+        assertFalse(RequestPhases.active());
+        assertTrue(registry.getMeters().isEmpty(), "a request without a route is dropped");
+    }
+
+    @Test
+    void timedStreamPassesWritesThrough() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TimedOutputStream timed = new TimedOutputStream(out);
+
+        timed.write('{');
+        timed.write("\"id\":1}".getBytes(), 0, 7);
+        timed.flush();
+        timed.close();
+
+        assertArrayEquals("{\"id\":1}".getBytes(), out.toByteArray());
+        assertTrue(timed.nanos() > 0);
+    }
+}
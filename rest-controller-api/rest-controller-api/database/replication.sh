@@ -0,0 +1,4 @@
+#!/bin/sh
+# Lets postgres-replica (docker-compose profile "replica") stream WAL from this
+# instance. Runs once, when the data volume is initialized.
+echo "host replication ${POSTGRES_USER} all scram-sha-256" >> "$PGDATA/pg_hba.conf"
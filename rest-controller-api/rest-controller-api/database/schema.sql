@@ -28,7 +28,8 @@ CREATE TABLE item (
 );
 
 -- Create indexes for performance
-CREATE INDEX idx_item_category_id ON item(category_id);
+-- (category_id, id) also serves keyset pagination within a category (?after=)
+CREATE INDEX idx_item_category_id ON item(category_id, id);
 CREATE INDEX idx_category_name ON category(name);
 CREATE INDEX idx_item_name ON item(name);
 CREATE INDEX idx_item_price ON item(price);
@@ -1,22 +1,64 @@
 package com.example;
 
+import com.example.common.dto.ImportResult;
+import com.example.common.io.ItemCopyImporter;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Random;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Data Generator for REST API Performance Testing
- * Generates 2000 categories and 100,000 items
+ * Generates 2000 categories and 100,000 items by default
+ *
+ * <p>Every value is derived from {@code --seed} and the row id, so a given set of
+ * options always produces identical data, whatever the number of writers. Items
+ * are split into contiguous id ranges, one per writer, each loaded with COPY on
+ * its own pooled connection. Options (or the matching environment variable):
+ * <pre>
+ *   --items N               GEN_ITEMS               (100000)
+ *   --categories N          GEN_CATEGORIES          (2000)
+ *   --description-length N  GEN_DESCRIPTION_LENGTH  (100, characters per item)
+ *   --skew uniform|zipf[:s] GEN_SKEW                (uniform; zipf default s = 1.0)
+ *   --seed N                GEN_SEED                (42)
+ *   --writers N             GEN_WRITERS             (available processors, max 16)
+ *   --truncate              empty both tables first
+ * </pre>
+ *
+ * With {@code --import <file.csv|file.ndjson> [--truncate]} it loads items
+ * from a file through COPY instead (categories must already exist).
  */
 public class DataGenerator {
 
-    private static final int CATEGORIES_COUNT = 2000;
-    private static final int ITEMS_COUNT = 100000;
-    private static final int BATCH_SIZE = 1000;
+    private static final int COPY_CHUNK_ROWS = 1000;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final String[] WORDS = {
+        "durable", "compact", "premium", "classic", "modern", "portable", "wireless", "steel",
+        "cotton", "organic", "vintage", "deluxe", "smart", "outdoor", "kitchen", "office",
+        "garden", "travel", "sport", "studio", "basic", "large", "small", "blue",
+        "black", "white", "green", "set", "pack", "edition", "series", "model"
+    };
 
     public static void main(String[] args) {
         String jdbcUrl = System.getenv().getOrDefault("DB_URL", "jdbc:postgresql://localhost:5432/rest_api_perf");
@@ -25,20 +67,48 @@ public class DataGenerator {
 
         System.out.println("=== REST API Performance Test Data Generator ===");
         System.out.println("Database: " + jdbcUrl);
-        System.out.println("Generating " + CATEGORIES_COUNT + " categories and " + ITEMS_COUNT + " items...\n");
+
+        List<String> arguments = Arrays.asList(args);
+        int importIndex = arguments.indexOf("--import");
+        if (importIndex >= 0 && (importIndex + 1 >= args.length || args[importIndex + 1].startsWith("--"))) {
+            System.err.println("✗ --import needs a .csv, .ndjson or .jsonl file");
+            System.exit(2);
+            return;
+        }
+        Options options;
+        try {
+            options = Options.parse(arguments);
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.exit(2);
+            return;
+        }
 
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(jdbcUrl);
         config.setUsername(username);
         config.setPassword(password);
-        config.setMaximumPoolSize(10);
+        config.setMaximumPoolSize(Math.max(10, options.writers() + 1));
         config.setAutoCommit(false);
 
         try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            if (importIndex >= 0) {
+                importItems(dataSource, Path.of(args[importIndex + 1]), options.truncate());
+                return;
+            }
+
+            System.out.println("Generating " + options.categories() + " categories and " + options.items()
+                + " items (" + options.describe() + ")...\n");
             long startTime = System.currentTimeMillis();
 
-            generateCategories(dataSource);
-            generateItems(dataSource);
+            List<String> rebuild = prepareTables(dataSource, options.truncate());
+            try {
+                generateCategories(dataSource, options);
+                generateItems(dataSource, options);
+            } finally {
+                // Also after a failure: the tables must not be left without their indexes and foreign key
+                finishTables(dataSource, options, rebuild);
+            }
 
             long endTime = System.currentTimeMillis();
             System.out.println("\n✓ Data generation completed in " + (endTime - startTime) + " ms");
@@ -50,61 +120,396 @@ public class DataGenerator {
         }
     }
 
-    private static void generateCategories(HikariDataSource dataSource) throws SQLException {
-        System.out.println("Generating categories...");
-        String sql = "INSERT INTO category (name, description) VALUES (?, ?)";
+    /**
+     * Generation writes explicit ids, so it needs empty tables. Secondary indexes
+     * and the foreign key are dropped for the load and rebuilt by
+     * {@link #finishTables}. This is committed up front because the writers use
+     * their own connections, so the rebuild statements are printed before the
+     * commit: they are the way back if the run is killed before the rebuild.
+     */
+    private static List<String> prepareTables(HikariDataSource dataSource, boolean truncate) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
 
+            if (!truncate) {
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT EXISTS (SELECT 1 FROM item) OR EXISTS (SELECT 1 FROM category)")) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        throw new IllegalStateException("Tables are not empty; rerun with --truncate");
+                    }
+                }
+            }
+            stmt.execute("TRUNCATE item, category RESTART IDENTITY");
+            List<String> rebuild = new ArrayList<>(dropForReload(stmt, "category"));
+            rebuild.addAll(dropForReload(stmt, "item"));
+            System.out.println("Dropping indexes and foreign key for the load. If the run is interrupted, restore them with:");
+            for (String sql : rebuild) {
+                System.out.println("  " + sql + ";");
+            }
+            System.out.println();
+            conn.commit();
+            return rebuild;
+        }
+    }
+
+    private static void finishTables(HikariDataSource dataSource, Options options, List<String> rebuild)
+            throws SQLException {
+        long start = System.currentTimeMillis();
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            for (int i = 1; i <= CATEGORIES_COUNT; i++) {
-                stmt.setString(1, "Category " + i);
-                stmt.setString(2, "Description for category " + i + 
-                    ". This is a test category with some longer text to simulate real data.");
-                stmt.addBatch();
-
-                if (i % BATCH_SIZE == 0) {
-                    stmt.executeBatch();
-                    conn.commit();
-                    System.out.printf("  Progress: %d/%d categories (%.1f%%)%n", 
-                        i, CATEGORIES_COUNT, (i * 100.0 / CATEGORIES_COUNT));
+             Statement stmt = conn.createStatement()) {
+
+            // Ids were written explicitly; move the sequences past them for later inserts
+            stmt.execute("SELECT setval(pg_get_serial_sequence('category', 'id'), " + Math.max(options.categories(), 1)
+                + ", " + (options.categories() > 0) + ")");
+            stmt.execute("SELECT setval(pg_get_serial_sequence('item', 'id'), " + Math.max(options.items(), 1)
+                + ", " + (options.items() > 0) + ")");
+            for (String sql : rebuild) {
+                stmt.execute(sql);
+            }
+            conn.commit();
+        }
+        System.out.println("✓ Indexes and foreign key rebuilt in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private static void generateCategories(HikariDataSource dataSource, Options options) throws Exception {
+        System.out.println("Generating categories...");
+
+        try (Connection conn = dataSource.getConnection()) {
+            CopyIn copyIn = copyManager(conn).copyIn("COPY category (id, name, description) FROM STDIN (FORMAT csv)");
+            try {
+                StringBuilder csv = new StringBuilder();
+                for (long id = 1; id <= options.categories(); id++) {
+                    csv.append(id).append(",Category ").append(id)
+                        .append(",Description for category ").append(id)
+                        .append(". This is a test category with some longer text to simulate real data.\n");
+                    if (id % COPY_CHUNK_ROWS == 0) {
+                        writeChunk(copyIn, csv);
+                    }
+                }
+                writeChunk(copyIn, csv);
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
                 }
             }
+            conn.commit();
+        }
+        System.out.println("✓ " + options.categories() + " categories generated");
+    }
+
+    private static void generateItems(HikariDataSource dataSource, Options options) throws Exception {
+        int writers = (int) Math.max(1, Math.min(options.writers(), options.items()));
+        System.out.println("\nGenerating items with " + writers + " writers...");
+
+        CategorySampler sampler = CategorySampler.of(options);
+        AtomicLong written = new AtomicLong();
+        long start = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<WriterResult>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            // Contiguous id ranges: each writer appends to its own part of the heap and PK index
+            long firstId = options.items() * w / writers + 1;
+            long lastId = options.items() * (w + 1) / writers;
+            int writer = w;
+            futures.add(executor.submit(
+                () -> writeItems(dataSource, options, sampler, writer, firstId, lastId, written)));
+        }
+        executor.shutdown();
+
+        while (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+            long rows = written.get();
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            System.out.printf("  Progress: %d/%d items (%.1f%%, %d rows/s)%n",
+                rows, options.items(), rows * 100.0 / options.items(), rows * 1000 / elapsed);
+        }
+
+        for (Future<WriterResult> future : futures) {
+            WriterResult result;
+            try {
+                result = future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            System.out.printf("  Writer %d: ids %d-%d, %d rows in %d ms (%d rows/s)%n",
+                result.writer(), result.firstId(), result.lastId(), result.rows(), result.millis(),
+                result.rows() * 1000 / Math.max(1, result.millis()));
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        System.out.printf("✓ %d items generated in %d ms (%d rows/s)%n",
+            options.items(), elapsed, options.items() * 1000 / elapsed);
+    }
 
-            stmt.executeBatch();
+    private static WriterResult writeItems(HikariDataSource dataSource, Options options, CategorySampler sampler,
+                                           int writer, long firstId, long lastId, AtomicLong written) throws Exception {
+        long start = System.currentTimeMillis();
+
+        try (Connection conn = dataSource.getConnection()) {
+            CopyIn copyIn = copyManager(conn).copyIn(
+                "COPY item (id, name, description, price, quantity, category_id) FROM STDIN (FORMAT csv)");
+            try {
+                StringBuilder csv = new StringBuilder();
+                int pending = 0;
+                for (long id = firstId; id <= lastId; id++) {
+                    appendItem(csv, id, options, sampler);
+                    if (++pending == COPY_CHUNK_ROWS) {
+                        writeChunk(copyIn, csv);
+                        written.addAndGet(pending);
+                        pending = 0;
+                    }
+                }
+                writeChunk(copyIn, csv);
+                written.addAndGet(pending);
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
             conn.commit();
-            System.out.println("✓ " + CATEGORIES_COUNT + " categories generated");
         }
+        return new WriterResult(writer, firstId, lastId, lastId - firstId + 1, System.currentTimeMillis() - start);
+    }
+
+    /** One CSV row; the words are plain lowercase, so no quoting is needed. */
+    private static void appendItem(StringBuilder csv, long id, Options options, CategorySampler sampler) {
+        SplittableRandom random = new SplittableRandom(rowSeed(options.seed(), id));
+
+        csv.append(id).append(",Item ").append(id).append(',');
+        int end = csv.length() + options.descriptionLength();
+        csv.append("Description for item ").append(id).append('.');
+        while (csv.length() < end) {
+            csv.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        csv.setLength(end);
+
+        long cents = 100 + random.nextLong(99_900);
+        csv.append(',').append(cents / 100).append('.');
+        if (cents % 100 < 10) {
+            csv.append('0');
+        }
+        csv.append(cents % 100)
+            .append(',').append(random.nextInt(1000))
+            .append(',').append(sampler.next(random))
+            .append('\n');
     }
 
-    private static void generateItems(HikariDataSource dataSource) throws SQLException {
-        System.out.println("\nGenerating items...");
-        String sql = "INSERT INTO item (name, description, price, quantity, category_id) VALUES (?, ?, ?, ?, ?)";
-        Random random = new Random();
+    /** Independent, well-mixed seed per row (murmur3 finalizer), so the data does not depend on the partitioning. */
+    private static long rowSeed(long seed, long id) {
+        long z = seed + id * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static CopyManager copyManager(Connection conn) throws SQLException {
+        return new CopyManager(conn.unwrap(BaseConnection.class));
+    }
+
+    private static void writeChunk(CopyIn copyIn, StringBuilder csv) throws SQLException {
+        if (csv.isEmpty()) {
+            return;
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        csv.setLength(0);
+    }
+
+    private static void importItems(HikariDataSource dataSource, Path file, boolean truncate) throws Exception {
+        ItemCopyImporter.Format format = ItemCopyImporter.Format.fromFileName(file.toString())
+            .orElseThrow(() -> new IllegalArgumentException("Expected a .csv, .ndjson or .jsonl file: " + file));
+        System.out.println("Importing items from " + file + " (" + format + ")...");
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            for (int i = 1; i <= ITEMS_COUNT; i++) {
-                stmt.setString(1, "Item " + i);
-                stmt.setString(2, "Description for item " + i + 
-                    ". This item belongs to a category and has various properties for testing purposes.");
-                stmt.setDouble(3, Math.round((random.nextDouble() * 999 + 1) * 100.0) / 100.0);
-                stmt.setInt(4, random.nextInt(1000));
-                stmt.setLong(5, random.nextInt(CATEGORIES_COUNT) + 1);
-                stmt.addBatch();
-
-                if (i % BATCH_SIZE == 0) {
-                    stmt.executeBatch();
-                    conn.commit();
-                    System.out.printf("  Progress: %d/%d items (%.1f%%)%n", 
-                        i, ITEMS_COUNT, (i * 100.0 / ITEMS_COUNT));
+             InputStream in = Files.newInputStream(file)) {
+
+            List<String> rebuild = truncate ? truncateForReload(conn) : List.of();
+
+            ImportResult result = new ItemCopyImporter().importItems(conn, in, format,
+                (rows, rowsPerSecond) -> System.out.printf("  Progress: %d items (%d rows/s)%n", rows, rowsPerSecond));
+            System.out.printf("✓ %d items copied in %d ms (%d rows/s)%n",
+                result.getRows(), result.getMillis(), result.getRowsPerSecond());
+
+            if (!rebuild.isEmpty()) {
+                long start = System.currentTimeMillis();
+                try (Statement stmt = conn.createStatement()) {
+                    for (String sql : rebuild) {
+                        stmt.execute(sql);
+                    }
                 }
+                System.out.println("✓ Indexes and foreign key rebuilt in " + (System.currentTimeMillis() - start) + " ms");
             }
-
-            stmt.executeBatch();
             conn.commit();
-            System.out.println("✓ " + ITEMS_COUNT + " items generated");
+        }
+    }
+
+    /**
+     * Empties item for a full reload and drops its secondary indexes and foreign
+     * key: building them once after COPY is far cheaper than maintaining them
+     * row by row. Everything runs in the caller's transaction, so readers never
+     * see the table half loaded.
+     *
+     * @return statements that restore the indexes and constraint, plus ANALYZE
+     */
+    private static List<String> truncateForReload(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Restart ids at 1 so the JMeter id ranges match again
+            stmt.execute("TRUNCATE item RESTART IDENTITY");
+            return dropForReload(stmt, "item");
+        }
+    }
+
+    /**
+     * Drops the secondary indexes and foreign keys of a table (constraint-backed
+     * indexes such as the primary key stay).
+     *
+     * @return statements that restore them, plus ANALYZE
+     */
+    private static List<String> dropForReload(Statement stmt, String table) throws SQLException {
+        List<String> drop = new ArrayList<>();
+        List<String> rebuild = new ArrayList<>();
+
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT indexname, indexdef FROM pg_indexes WHERE schemaname = current_schema() AND tablename = '" + table + "' "
+                    + "AND indexname NOT IN (SELECT conname FROM pg_constraint WHERE conrelid = '" + table + "'::regclass)")) {
+            while (rs.next()) {
+                drop.add("DROP INDEX " + rs.getString(1));
+                rebuild.add(rs.getString(2));
+            }
+        }
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT conname, pg_get_constraintdef(oid) FROM pg_constraint "
+                    + "WHERE conrelid = '" + table + "'::regclass AND contype = 'f'")) {
+            while (rs.next()) {
+                drop.add("ALTER TABLE " + table + " DROP CONSTRAINT " + rs.getString(1));
+                rebuild.add("ALTER TABLE " + table + " ADD CONSTRAINT " + rs.getString(1) + " " + rs.getString(2));
+            }
+        }
+        rebuild.add("ANALYZE " + table);
+
+        for (String sql : drop) {
+            stmt.execute(sql);
+        }
+        return rebuild;
+    }
+
+    private record WriterResult(int writer, long firstId, long lastId, long rows, long millis) {
+    }
+
+    /** Generation settings from command-line flags, falling back to GEN_* environment variables. */
+    record Options(long items, long categories, int descriptionLength, double zipfExponent,
+                   long seed, int writers, boolean truncate) {
+
+        static Options parse(List<String> args) {
+            String skew = value(args, "--skew", "GEN_SKEW", "uniform").toLowerCase(Locale.ROOT);
+            double zipfExponent;
+            if (skew.equals("uniform")) {
+                zipfExponent = 0;
+            } else if (skew.equals("zipf")) {
+                zipfExponent = 1.0;
+            } else if (skew.startsWith("zipf:")) {
+                zipfExponent = Double.parseDouble(skew.substring("zipf:".length()));
+                if (!(zipfExponent > 0)) {
+                    throw new IllegalArgumentException("Zipf exponent must be positive: " + skew);
+                }
+            } else {
+                throw new IllegalArgumentException("--skew must be uniform, zipf or zipf:<exponent>: " + skew);
+            }
+
+            int defaultWriters = Math.min(16, Runtime.getRuntime().availableProcessors());
+            Options options = new Options(
+                number(args, "--items", "GEN_ITEMS", 100_000),
+                number(args, "--categories", "GEN_CATEGORIES", 2000),
+                (int) number(args, "--description-length", "GEN_DESCRIPTION_LENGTH", 100),
+                zipfExponent,
+                number(args, "--seed", "GEN_SEED", 42),
+                (int) number(args, "--writers", "GEN_WRITERS", defaultWriters),
+                args.contains("--truncate"));
+
+            if (options.items() < 0 || options.writers() < 1 || options.descriptionLength() < 25) {
+                throw new IllegalArgumentException("Need --items >= 0, --writers >= 1 and --description-length >= 25");
+            }
+            if (options.categories() < 1 && options.items() > 0) {
+                throw new IllegalArgumentException("Items need at least one category");
+            }
+            return options;
+        }
+
+        String describe() {
+            return String.format(Locale.ROOT, "%s, seed %d, %d-char descriptions",
+                zipfExponent == 0 ? "uniform categories" : "zipf(" + zipfExponent + ") categories",
+                seed, descriptionLength);
+        }
+
+        private static long number(List<String> args, String flag, String env, long defaultValue) {
+            String value = value(args, flag, env, null);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.replace("_", ""));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(flag + " must be a number: " + value);
+            }
+        }
+
+        private static String value(List<String> args, String flag, String env, String defaultValue) {
+            int index = args.indexOf(flag);
+            if (index >= 0) {
+                if (index + 1 >= args.size()) {
+                    throw new IllegalArgumentException(flag + " needs a value");
+                }
+                return args.get(index + 1);
+            }
+            return System.getenv().getOrDefault(env, defaultValue);
+        }
+    }
+
+    /**
+     * Picks the category of an item. With Zipf skew category 1 is the hottest,
+     * category k gets a share proportional to 1/k^s.
+     */
+    private static final class CategorySampler {
+
+        private final long categories;
+        private final double[] cumulative;
+
+        private CategorySampler(long categories, double[] cumulative) {
+            this.categories = categories;
+            this.cumulative = cumulative;
+        }
+
+        static CategorySampler of(Options options) {
+            if (options.zipfExponent() == 0 || options.categories() <= 1) {
+                return new CategorySampler(options.categories(), null);
+            }
+            if (options.categories() > 10_000_000) {
+                throw new IllegalArgumentException("Zipf skew supports at most 10,000,000 categories");
+            }
+            double[] cumulative = new double[(int) options.categories()];
+            double sum = 0;
+            for (int k = 0; k < cumulative.length; k++) {
+                sum += 1.0 / Math.pow(k + 1, options.zipfExponent());
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < cumulative.length; k++) {
+                cumulative[k] /= sum;
+            }
+            return new CategorySampler(options.categories(), cumulative);
+        }
+
+        long next(SplittableRandom random) {
+            if (cumulative == null) {
+                return random.nextLong(categories) + 1;
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            // Not found: -(insertion point) - 1, the first bucket whose bound exceeds the draw;
+            // rounding can leave the last bound just under 1.0
+            int bucket = Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+            return bucket + 1L;
         }
     }
 }
@@ -0,0 +1,129 @@
+package com.example.harness;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares a run with a stored baseline row by row (same table and variant).
+ * Throughput falling, or a latency percentile rising, by more than the
+ * threshold percentage is a regression, as is the error rate rising by more
+ * than one percentage point. Resource columns are shown in the tables but not
+ * judged: they move with the load the variant managed to serve.
+ */
+final class BaselineComparison {
+
+    private static final double ERROR_POINTS = 1.0;
+
+    private enum Metric {
+        RPS("RPS", Measurement::rps, false),
+        P50("p50", Measurement::p50Millis, true),
+        P95("p95", Measurement::p95Millis, true),
+        P99("p99", Measurement::p99Millis, true),
+        ERRORS("Error %", Measurement::errorPercent, true);
+
+        private final String label;
+        private final ToDoubleFunction<Measurement> value;
+        private final boolean higherIsWorse;
+
+        Metric(String label, ToDoubleFunction<Measurement> value, boolean higherIsWorse) {
+            this.label = label;
+            this.value = value;
+            this.higherIsWorse = higherIsWorse;
+        }
+    }
+
+    /** A metric of one row that moved past the threshold in the wrong direction. */
+    record Regression(String scenario, String label, String metric, double baseline, double current, String change) {
+    }
+
+    private final Path file;
+    private final JsonReport baseline;
+    private final double thresholdPercent;
+    private final Map<String, Measurement> baselineRows = new LinkedHashMap<>();
+    private final List<Regression> regressions = new ArrayList<>();
+    private final StringBuilder table = new StringBuilder();
+    private final List<String> unmatched = new ArrayList<>();
+
+    BaselineComparison(Path file, JsonReport baseline, List<Measurement> current, double thresholdPercent) {
+        this.file = file;
+        this.baseline = baseline;
+        this.thresholdPercent = thresholdPercent;
+        for (Measurement row : baseline.results()) {
+            baselineRows.put(row.key(), row);
+        }
+        for (Measurement row : current) {
+            Measurement before = baselineRows.get(row.key());
+            if (before == null) {
+                unmatched.add(row.scenario() + " " + row.label());
+                continue;
+            }
+            table.append("| ").append(row.scenario()).append(" | ").append(row.label());
+            for (Metric metric : Metric.values()) {
+                table.append(" | ").append(compare(metric, before, row));
+            }
+            table.append(" |\n");
+        }
+    }
+
+    private String compare(Metric metric, Measurement before, Measurement now) {
+        double was = metric.value.applyAsDouble(before);
+        double is = metric.value.applyAsDouble(now);
+        if (Double.isNaN(was) || Double.isNaN(is)) {
+            return "n/a";
+        }
+        String change;
+        boolean regressed;
+        if (metric == Metric.ERRORS) {
+            double points = is - was;
+            change = String.format(Locale.ROOT, "%+.2f pt", points);
+            regressed = points > ERROR_POINTS;
+        } else if (was == 0) {
+            change = is == 0 ? "±0%" : "new";
+            regressed = false;
+        } else {
+            double percent = (is - was) * 100 / was;
+            change = String.format(Locale.ROOT, "%+.1f%%", percent);
+            regressed = metric.higherIsWorse ? percent > thresholdPercent : -percent > thresholdPercent;
+        }
+        if (!regressed) {
+            return change;
+        }
+        regressions.add(new Regression(now.scenario(), now.label(), metric.label, was, is, change));
+        return "**" + change + "** ✗";
+    }
+
+    List<Regression> regressions() {
+        return regressions;
+    }
+
+    String render() {
+        StringBuilder md = new StringBuilder();
+        md.append("\n## Baseline Comparison\n\n");
+        md.append("- **Baseline**: `").append(file).append('`');
+        if (baseline.commit() != null) {
+            md.append(" (commit ").append(baseline.commit()).append(')');
+        }
+        if (baseline.date() != null) {
+            md.append(", ").append(baseline.date());
+        }
+        md.append('\n');
+        md.append(String.format(Locale.ROOT,
+            "- **Threshold**: RPS or p50/p95/p99 worse by more than %.0f%%, error rate up by more than %.0f point%n",
+            thresholdPercent, ERROR_POINTS));
+        md.append("- **Result**: ").append(regressions.isEmpty()
+            ? "no regressions"
+            : regressions.size() + " regression" + (regressions.size() == 1 ? "" : "s")).append("\n\n");
+        md.append("| Table | Variant | RPS | p50 | p95 | p99 | Error % |\n");
+        md.append("|-------|---------|-----|-----|-----|-----|---------|\n");
+        md.append(table);
+        if (!unmatched.isEmpty()) {
+            md.append("\nNot in the baseline: ").append(String.join(", ", unmatched)).append('\n');
+        }
+        return md.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.harness;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throw-away PostgreSQL 16 (binaries from Maven Central, no installation),
+ * with {@code database/schema.sql} applied and data loaded by the
+ * DataGenerator jar, exactly as for the JMeter runs.
+ */
+final class EmbeddedDatabase implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final Path projectRoot;
+
+    private EmbeddedDatabase(EmbeddedPostgres postgres, Path projectRoot) {
+        this.postgres = postgres;
+        this.projectRoot = projectRoot;
+    }
+
+    static EmbeddedDatabase start(Path projectRoot) throws IOException, SQLException {
+        Path generator = generatorJar(projectRoot);
+        if (!Files.isRegularFile(generator)) {
+            throw new IllegalStateException("Missing " + generator + "; run mvn package in database/ first");
+        }
+
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+            // Same order of magnitude as a small dedicated server, not the 128 MB default
+            .setServerConfig("shared_buffers", "256MB")
+            .setServerConfig("max_connections", "200")
+            .start();
+        EmbeddedDatabase database = new EmbeddedDatabase(postgres, projectRoot);
+
+        try (Connection conn = postgres.getPostgresDatabase().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(Files.readString(projectRoot.resolve("database").resolve("schema.sql")));
+        } catch (IOException | SQLException | RuntimeException e) {
+            database.close();
+            throw e;
+        }
+        return database;
+    }
+
+    String jdbcUrl() {
+        return "jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres";
+    }
+
+    /** Same database for the R2DBC variant. */
+    String r2dbcUrl() {
+        return "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres";
+    }
+
+    String username() {
+        return "postgres";
+    }
+
+    String password() {
+        return "";
+    }
+
+    /**
+     * Replaces all rows with a fresh, identical data set, so every run starts
+     * from the same state regardless of what the previous scenario wrote.
+     */
+    void seed(List<String> generatorArgs, Path log) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+            VariantProcess.javaExecutable(), "-jar", generatorJar(projectRoot).toString(), "--truncate"));
+        command.addAll(generatorArgs);
+
+        Files.createDirectories(log.getParent());
+        ProcessBuilder builder = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile());
+        builder.environment().put("DB_URL", jdbcUrl());
+        builder.environment().put("DB_USER", username());
+        builder.environment().put("DB_PASSWORD", password());
+
+        Process process = builder.start();
+        if (!process.waitFor(30, TimeUnit.MINUTES) || process.exitValue() != 0) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Data generation failed, see " + log);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+
+    private static Path generatorJar(Path projectRoot) {
+        return projectRoot.resolve("database").resolve("target").resolve("data-generator-1.0.0.jar");
+    }
+}
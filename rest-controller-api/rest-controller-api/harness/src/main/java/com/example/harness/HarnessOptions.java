@@ -0,0 +1,175 @@
+package com.example.harness;
+
+import com.example.loaddriver.LoadGenerator;
+import com.example.loaddriver.Scenario;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Harness settings from command-line flags:
+ * <pre>
+ *   --variants a,c,d,e     variants to compare (all)
+ *   --scenarios 1,2,3,4    scenario mixes to run (all)
+ *   --warmup 15s           unmeasured load before each run
+ *   --duration 60s         measured load per variant and scenario
+ *   --clients N            closed loop with N clients (default: the JMeter thread count)
+ *   --rate N               open loop at N requests/s instead
+ *   --items N --categories N --seed N   data set, as for the DataGenerator
+ *   --jvm-args "..."       extra JVM options for the variants (e.g. -Xmx1g)
+ *   --app-args "..."       extra Spring arguments (e.g. --app.cache.json.enabled=false)
+ *   --accept TYPE          Accept type of the reads, e.g. application/x-protobuf (application/json)
+ *   --root DIR             project root (current or parent directory)
+ *   --output FILE          Markdown report (results/harness-&lt;timestamp&gt;.md), JSON beside it
+ *   --baseline FILE        JSON report to compare with; exit code 3 on regressions
+ *   --threshold PCT        allowed RPS/latency change against the baseline (10)
+ *   --update-baseline      write this run's JSON to the --baseline file if nothing regressed
+ *   --force                with --update-baseline, write it even if something regressed
+ * </pre>
+ */
+record HarnessOptions(Path projectRoot, List<Variant> variants, List<Scenario> scenarios,
+                      Duration warmup, Duration duration, Integer clients, Double rate,
+                      long items, long categories, long seed,
+                      List<String> jvmArgs, List<String> appArgs, String accept, Path output,
+                      Path baseline, double thresholdPercent, boolean updateBaseline, boolean force) {
+
+    static HarnessOptions parse(String[] args) {
+        List<String> list = Arrays.asList(args);
+        Path root = value(list, "--root") != null ? Path.of(value(list, "--root")) : findProjectRoot();
+
+        List<Variant> variants = new ArrayList<>();
+        for (String name : value(list, "--variants", "a,c,d,e").split(",")) {
+            try {
+                variants.add(Variant.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown variant: " + name + " (expected a, c or d)");
+            }
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String number : value(list, "--scenarios", "1,2,3,4").split(",")) {
+            scenarios.add(Scenario.of((int) number(number.trim(), "--scenarios")));
+        }
+
+        String clients = value(list, "--clients");
+        String rate = value(list, "--rate");
+        if (clients != null && rate != null) {
+            throw new IllegalArgumentException("--clients (closed loop) and --rate (open loop) are exclusive");
+        }
+        String output = value(list, "--output");
+        String baseline = value(list, "--baseline");
+
+        HarnessOptions options = new HarnessOptions(
+            root.toAbsolutePath().normalize(),
+            variants,
+            scenarios,
+            duration(value(list, "--warmup", "15s"), "--warmup"),
+            duration(value(list, "--duration", "60s"), "--duration"),
+            clients != null ? (int) number(clients, "--clients") : null,
+            rate != null ? (double) number(rate, "--rate") : null,
+            number(value(list, "--items", "100000"), "--items"),
+            number(value(list, "--categories", "2000"), "--categories"),
+            number(value(list, "--seed", "42"), "--seed"),
+            split(value(list, "--jvm-args", "")),
+            split(value(list, "--app-args", "")),
+            value(list, "--accept", LoadGenerator.JSON),
+            output != null
+                ? Path.of(output)
+                : root.resolve("results").resolve("harness-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".md"),
+            baseline != null ? Path.of(baseline) : null,
+            number(value(list, "--threshold", "10"), "--threshold"),
+            list.contains("--update-baseline"),
+            list.contains("--force"));
+
+        if ((options.clients() != null && options.clients() < 1) || (options.rate() != null && options.rate() <= 0)) {
+            throw new IllegalArgumentException("--clients and --rate must be positive");
+        }
+        if (options.items() < 10 || options.categories() < 1) {
+            throw new IllegalArgumentException("Need --items >= 10 and --categories >= 1");
+        }
+        if (options.thresholdPercent() <= 0) {
+            throw new IllegalArgumentException("--threshold must be positive");
+        }
+        if (options.updateBaseline() && options.baseline() == null) {
+            throw new IllegalArgumentException("--update-baseline needs --baseline FILE");
+        }
+        if (options.force() && !options.updateBaseline()) {
+            throw new IllegalArgumentException("--force only applies to --update-baseline");
+        }
+        return options;
+    }
+
+    /** Clients for a scenario in closed-loop mode. */
+    int clientsFor(Scenario scenario) {
+        return clients != null ? clients : scenario.defaultClients();
+    }
+
+    boolean openLoop() {
+        return rate != null;
+    }
+
+    List<String> generatorArgs() {
+        return List.of("--items", String.valueOf(items), "--categories", String.valueOf(categories),
+            "--seed", String.valueOf(seed));
+    }
+
+    private static Path findProjectRoot() {
+        Path cwd = Path.of("").toAbsolutePath();
+        for (Path candidate = cwd; candidate != null; candidate = candidate.getParent()) {
+            if (Files.isDirectory(candidate.resolve("variant-c-spring")) && Files.isDirectory(candidate.resolve("database"))) {
+                return candidate;
+            }
+        }
+        return cwd;
+    }
+
+    private static Duration duration(String value, String flag) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (v.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            }
+            if (v.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(v.endsWith("s") ? v.substring(0, v.length() - 1) : v));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(flag + " must be a duration such as 30s or 2m: " + value);
+        }
+    }
+
+    private static long number(String value, String flag) {
+        try {
+            return Long.parseLong(value.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(flag + " must be a number: " + value);
+        }
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+
+    private static String value(List<String> args, String flag, String defaultValue) {
+        String value = value(args, flag);
+        return value != null ? value : defaultValue;
+    }
+
+    private static String value(List<String> args, String flag) {
+        int index = args.indexOf(flag);
+        if (index < 0) {
+            return null;
+        }
+        if (index + 1 >= args.size()) {
+            throw new IllegalArgumentException(flag + " needs a value");
+        }
+        return args.get(index + 1);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.harness;
+
+import com.example.loaddriver.IntervalLog;
+import com.example.loaddriver.LoadGenerator;
+import com.example.loaddriver.Scenario;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the scenario mixes against each variant with no installed database,
+ * JMeter or Prometheus: an embedded PostgreSQL is seeded by the DataGenerator
+ * before every run, the variant is started fresh, warmed up, then measured
+ * while its resource use is sampled. Results go to a Markdown and a JSON
+ * report; with {@code --baseline} the run is compared to an earlier JSON
+ * report and the exit code is 3 if anything regressed past the threshold.
+ *
+ * <p>Requires {@code mvn package} in the project root and in {@code database/}.
+ */
+public class HarnessRunner {
+
+    public static void main(String[] args) {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+
+        HarnessOptions options;
+        try {
+            options = HarnessOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        System.out.println("=== REST API Benchmark Harness ===");
+        System.out.println("Project: " + options.projectRoot());
+        Path logs = options.projectRoot().resolve("harness").resolve("target").resolve("logs");
+        String commit = gitCommit(options.projectRoot());
+        Map<String, String> environment = environment(options, commit);
+        MarkdownReport report = new MarkdownReport(options, environment);
+        int exitCode = 0;
+
+        try (EmbeddedDatabase database = EmbeddedDatabase.start(options.projectRoot())) {
+            System.out.println("Database: " + database.jdbcUrl() + "\n");
+            Scenario.DataShape data = new Scenario.DataShape(options.items(), options.categories());
+
+            for (Scenario scenario : options.scenarios()) {
+                System.out.println(scenario.table() + ": " + scenario.title());
+                for (Variant variant : options.variants()) {
+                    String run = variant.module() + "-s" + scenario.number();
+                    database.seed(options.generatorArgs(), logs.resolve(run + "-seed.log"));
+
+                    try (VariantProcess process = VariantProcess.start(variant, options.projectRoot(), database,
+                            options.jvmArgs(), options.appArgs(), logs.resolve(run + ".log"));
+                         LoadGenerator load = new LoadGenerator(process.baseUri(), scenario, data, options.seed(),
+                             options.accept())) {
+
+                        if (!options.warmup().isZero()) {
+                            drive(load, options, scenario, options.warmup(), null);
+                        }
+                        LoadGenerator.RunResult result;
+                        ResourceSampler.Usage usage;
+                        try (IntervalLog hlog = IntervalLog.create(logs.resolve(run + ".hlog"),
+                                variant.label() + ", " + scenario.table());
+                             ResourceSampler sampler = ResourceSampler.start(process)) {
+                            result = drive(load, options, scenario, options.duration(), hlog);
+                            usage = sampler.stop();
+                        }
+                        Measurement measurement = Measurement.of(scenario, variant, result, usage);
+                        report.add(scenario, measurement);
+
+                        System.out.printf(Locale.ROOT, "  %-28s %9.1f req/s  p50 %7.2f ms  p95 %7.2f ms  p99 %7.2f ms  errors %.2f%%"
+                                + "  cpu %.0f%%  ram %.0f MB  gc %d/%.0f ms  threads %d  %.0f B/response%n",
+                            variant.label(), measurement.rps(), measurement.p50Millis(), measurement.p95Millis(),
+                            measurement.p99Millis(), measurement.errorPercent(), measurement.cpuPercent(),
+                            measurement.ramMb(), measurement.gcCount(), measurement.gcMillis(), measurement.threads(),
+                            result.bytesPerResponse());
+                    }
+                }
+                System.out.println();
+            }
+
+            JsonReport json = new JsonReport(environment.get("Date"), commit, environment, report.measurements());
+            if (options.baseline() != null) {
+                exitCode = compare(options, report, json);
+            }
+            report.write(options.output());
+            Path jsonFile = JsonReport.besides(options.output());
+            json.write(jsonFile);
+            System.out.println("✓ Results written to " + options.output() + " and " + jsonFile);
+            if (options.updateBaseline() && exitCode != 0 && !options.force()) {
+                System.out.println("✗ Baseline kept: the run regressed; add --force to accept it anyway");
+            } else if (options.updateBaseline()) {
+                json.write(options.baseline());
+                System.out.println("✓ Baseline updated: " + options.baseline());
+            }
+
+        } catch (Exception e) {
+            System.err.println("✗ Harness failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.exit(exitCode);
+    }
+
+    /** Adds the comparison to the report; 3 if something regressed, else 0. */
+    private static int compare(HarnessOptions options, MarkdownReport report, JsonReport current) throws IOException {
+        if (!Files.isRegularFile(options.baseline())) {
+            System.out.println("! No baseline at " + options.baseline() + ", nothing to compare");
+            return 0;
+        }
+        BaselineComparison comparison = new BaselineComparison(options.baseline(), JsonReport.read(options.baseline()),
+            current.results(), options.thresholdPercent());
+        report.compare(comparison);
+        if (comparison.regressions().isEmpty()) {
+            System.out.printf(Locale.ROOT, "✓ No regressions above %.0f%% against %s%n",
+                options.thresholdPercent(), options.baseline());
+            return 0;
+        }
+        System.out.println("✗ Regressions against " + options.baseline() + ":");
+        for (BaselineComparison.Regression r : comparison.regressions()) {
+            System.out.printf(Locale.ROOT, "  %s %-28s %-7s %10.2f -> %10.2f  (%s)%n",
+                r.scenario(), r.label(), r.metric(), r.baseline(), r.current(), r.change());
+        }
+        return 3;
+    }
+
+    private static Map<String, String> environment(HarnessOptions options, String commit) {
+        Map<String, String> environment = new LinkedHashMap<>();
+        environment.put("Date", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME).substring(0, 19));
+        if (commit != null) {
+            environment.put("Commit", commit);
+        }
+        environment.put("Database", "embedded PostgreSQL 16 (harness)");
+        environment.put("Data", String.format(Locale.ROOT, "%,d categories + %,d items (seed %d)",
+            options.categories(), options.items(), options.seed()));
+        environment.put("JVM", "Java " + Runtime.version().feature());
+        environment.put("Hardware", Runtime.getRuntime().availableProcessors() + " CPUs, "
+            + System.getProperty("os.name") + ' ' + System.getProperty("os.arch"));
+        environment.put("Load", (options.openLoop()
+                ? String.format(Locale.ROOT, "open loop at %.0f requests/s", options.rate())
+                : "closed loop")
+            + ", " + options.warmup().toSeconds() + "s warmup, " + options.duration().toSeconds() + "s measured per variant");
+        if (!options.accept().equals(LoadGenerator.JSON)) {
+            environment.put("Reads", "Accept: " + options.accept());
+        }
+        if (!options.jvmArgs().isEmpty() || !options.appArgs().isEmpty()) {
+            environment.put("Variant arguments", "`" + String.join(" ", options.jvmArgs())
+                + (options.jvmArgs().isEmpty() || options.appArgs().isEmpty() ? "" : " ")
+                + String.join(" ", options.appArgs()) + "`");
+        }
+        return environment;
+    }
+
+    /** Short hash of the checked-out commit, or null outside a git work tree. */
+    private static String gitCommit(Path projectRoot) {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                .directory(projectRoot.toFile())
+                .redirectErrorStream(true)
+                .start();
+            String out = new String(git.getInputStream().readAllBytes()).trim();
+            return git.waitFor(10, TimeUnit.SECONDS) && git.exitValue() == 0 ? out : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static LoadGenerator.RunResult drive(LoadGenerator load, HarnessOptions options, Scenario scenario,
+                                                 Duration duration, IntervalLog hlog) {
+        return options.openLoop()
+            ? load.openLoop(options.rate(), duration, hlog)
+            : load.closedLoop(options.clientsFor(scenario), duration, hlog);
+    }
+}
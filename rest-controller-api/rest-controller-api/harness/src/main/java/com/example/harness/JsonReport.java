@@ -0,0 +1,41 @@
+package com.example.harness;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable form of a harness run, written next to the Markdown report
+ * and used as the baseline of later runs. Unknown values are written as
+ * {@code "NaN"} (Jackson's default), which reads back as NaN.
+ */
+record JsonReport(String date, String commit, Map<String, String> environment, List<Measurement> results) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, MAPPER.writeValueAsString(this) + "\n");
+    }
+
+    static JsonReport read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), JsonReport.class);
+    }
+
+    /** The {@code .json} companion of a Markdown report path. */
+    static Path besides(Path markdown) {
+        String name = markdown.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return markdown.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".json");
+    }
+}
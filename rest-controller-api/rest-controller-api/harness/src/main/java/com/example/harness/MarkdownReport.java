@@ -0,0 +1,88 @@
+package com.example.harness;
+
+import com.example.loaddriver.Scenario;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes results in the table layout of {@code results/MEASUREMENTS.md}, every
+ * column filled: load numbers from the load generator, resource columns from
+ * the variant's own metrics over the measured window (see {@link ResourceSampler}).
+ */
+final class MarkdownReport {
+
+    private static final String HEADER =
+        "| Variant | RPS | p50 (ms) | p95 (ms) | p99 (ms) | Error % | CPU % | RAM (MB) | GC Count | GC Time (ms) | Threads |\n"
+            + "|---------|-----|----------|----------|----------|---------|-------|----------|----------|--------------|---------|\n";
+
+    private final HarnessOptions options;
+    private final Map<String, String> environment;
+    private final Map<Scenario, List<Measurement>> results = new LinkedHashMap<>();
+    private BaselineComparison comparison;
+
+    MarkdownReport(HarnessOptions options, Map<String, String> environment) {
+        this.options = options;
+        this.environment = environment;
+    }
+
+    void add(Scenario scenario, Measurement measurement) {
+        results.computeIfAbsent(scenario, s -> new ArrayList<>()).add(measurement);
+    }
+
+    void compare(BaselineComparison comparison) {
+        this.comparison = comparison;
+    }
+
+    List<Measurement> measurements() {
+        return results.values().stream().flatMap(List::stream).toList();
+    }
+
+    String render() {
+        StringBuilder md = new StringBuilder();
+        md.append("# Harness Results\n\n");
+        md.append("## Test Environment\n\n");
+        environment.forEach((name, value) -> md.append("- **").append(name).append("**: ").append(value).append('\n'));
+        md.append("\n## Measurement Tables\n");
+
+        for (Map.Entry<Scenario, List<Measurement>> entry : results.entrySet()) {
+            Scenario scenario = entry.getKey();
+            md.append("\n### ").append(scenario.table()).append(": ").append(scenario.title()).append("\n\n");
+            md.append(HEADER);
+            for (Measurement row : entry.getValue()) {
+                md.append(String.format(Locale.ROOT, "| %s | %.1f | %.2f | %.2f | %.2f | %.2f | %s | %s | %s | %s | %s |%n",
+                    row.label(), row.rps(), row.p50Millis(), row.p95Millis(), row.p99Millis(), row.errorPercent(),
+                    cell("%.0f", row.cpuPercent()), cell("%.0f", row.ramMb()), count(row.gcCount()),
+                    cell("%.0f", row.gcMillis()), count(row.threads())));
+            }
+            md.append("\n**Load Profile**: ").append(options.openLoop()
+                ? String.format(Locale.ROOT, "%.0f requests/s", options.rate())
+                : options.clientsFor(scenario) + " clients").append("\n\n---\n");
+        }
+        if (comparison != null) {
+            md.append(comparison.render());
+        }
+        return md.toString();
+    }
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, render());
+    }
+
+    private static String cell(String format, double value) {
+        return Double.isNaN(value) || value < 0 ? "" : String.format(Locale.ROOT, format, value);
+    }
+
+    private static String count(long value) {
+        return value < 0 ? "" : String.valueOf(value);
+    }
+}
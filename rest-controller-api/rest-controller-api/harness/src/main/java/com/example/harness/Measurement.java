@@ -0,0 +1,27 @@
+package com.example.harness;
+
+import com.example.loaddriver.LoadGenerator;
+import com.example.loaddriver.Scenario;
+
+/**
+ * One row of a measurement table: the load generator's view of a run plus the
+ * variant's resource use over the same window. Unknown resource values are
+ * NaN, or -1 for counts.
+ */
+record Measurement(String scenario, String variant, String label,
+                   double rps, double p50Millis, double p95Millis, double p99Millis, double errorPercent,
+                   double cpuPercent, double ramMb, long gcCount, double gcMillis, int threads) {
+
+    static Measurement of(Scenario scenario, Variant variant,
+                          LoadGenerator.RunResult result, ResourceSampler.Usage usage) {
+        return new Measurement(scenario.table(), variant.name(), variant.label(),
+            result.requestsPerSecond(), result.percentileMillis(50), result.percentileMillis(95),
+            result.percentileMillis(99), result.errorPercent(),
+            usage.cpuPercent(), usage.ramMb(), usage.gcCount(), usage.gcMillis(), usage.threads());
+    }
+
+    /** Identifies the row across runs. */
+    String key() {
+        return scenario + "/" + variant;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.harness;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resource use of a variant over the measured window: CPU time as the OS
+ * reports it for the variant's process, and the JMX-backed {@code jvm.*}
+ * meters of its {@code /actuator/prometheus} endpoint, scraped once at the
+ * start, every second while the load runs (peaks) and once at the end (GC
+ * deltas). One scrape costs the variant a few milliseconds of CPU.
+ */
+final class ResourceSampler implements AutoCloseable {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(1);
+    private static final double MB = 1024.0 * 1024.0;
+
+    private static final String MEMORY_USED = "jvm_memory_used_bytes";
+    private static final String LIVE_THREADS = "jvm_threads_live_threads";
+    private static final String GC_PAUSES = "jvm_gc_pause_seconds_count";
+    private static final String GC_PAUSE_TIME = "jvm_gc_pause_seconds_sum";
+    private static final String CPU_USAGE = "process_cpu_usage";
+    private static final Set<String> METRICS = Set.of(MEMORY_USED, LIVE_THREADS, GC_PAUSES, GC_PAUSE_TIME, CPU_USAGE);
+
+    /** Columns CPU % (share of all cores), RAM (peak heap + non-heap used), GC and threads (peak). */
+    record Usage(double cpuPercent, double ramMb, long gcCount, double gcMillis, int threads) {
+
+        static final Usage UNKNOWN = new Usage(Double.NaN, Double.NaN, -1, Double.NaN, -1);
+    }
+
+    private final VariantProcess process;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final HttpRequest scrape;
+    private final ScheduledExecutorService sampler;
+    private final Map<String, Double> first;
+    private final Optional<Duration> firstCpu;
+    private final long startNanos = System.nanoTime();
+
+    // Written by the sampler thread, read after it stopped
+    private double peakMemory;
+    private double peakThreads;
+    private double cpuUsageSum;
+    private int cpuUsageSamples;
+
+    private ResourceSampler(VariantProcess process) {
+        this.process = process;
+        this.scrape = HttpRequest.newBuilder(process.baseUri().resolve("actuator/prometheus"))
+            .timeout(Duration.ofSeconds(5))
+            .build();
+        this.first = scrape();
+        this.firstCpu = process.cpuTime();
+        record(first);
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resource-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(() -> record(scrape()),
+            INTERVAL.toMillis(), INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    static ResourceSampler start(VariantProcess process) {
+        return new ResourceSampler(process);
+    }
+
+    /** Stops sampling and sums up the window; metrics the variant did not publish come out as unknown. */
+    Usage stop() throws InterruptedException {
+        sampler.shutdown();
+        sampler.awaitTermination(10, TimeUnit.SECONDS);
+        long wallNanos = System.nanoTime() - startNanos;
+        Optional<Duration> lastCpu = process.cpuTime();
+        Map<String, Double> last = scrape();
+        record(last);
+
+        double cores = Runtime.getRuntime().availableProcessors();
+        double cpuPercent;
+        if (firstCpu.isPresent() && lastCpu.isPresent()) {
+            cpuPercent = lastCpu.get().minus(firstCpu.get()).toNanos() * 100.0 / wallNanos / cores;
+        } else {
+            // Process CPU time is not available everywhere; fall back to the JVM's own recent-load gauge
+            cpuPercent = cpuUsageSamples > 0 ? cpuUsageSum / cpuUsageSamples * 100 : Double.NaN;
+        }
+        return new Usage(
+            cpuPercent,
+            peakMemory > 0 ? peakMemory / MB : Double.NaN,
+            (long) delta(first, last, GC_PAUSES),
+            delta(first, last, GC_PAUSE_TIME) * 1000,
+            (int) peakThreads);
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+        client.close();
+    }
+
+    private void record(Map<String, Double> sample) {
+        peakMemory = Math.max(peakMemory, sample.getOrDefault(MEMORY_USED, 0.0));
+        peakThreads = Math.max(peakThreads, sample.getOrDefault(LIVE_THREADS, 0.0));
+        Double cpu = sample.get(CPU_USAGE);
+        if (cpu != null) {
+            cpuUsageSum += cpu;
+            cpuUsageSamples++;
+        }
+    }
+
+    private static double delta(Map<String, Double> first, Map<String, Double> last, String metric) {
+        if (!first.containsKey(metric) || !last.containsKey(metric)) {
+            return -1;
+        }
+        return last.get(metric) - first.get(metric);
+    }
+
+    /** The selected metrics, each summed over its label sets; empty when the endpoint cannot be read. */
+    private Map<String, Double> scrape() {
+        Map<String, Double> totals = new HashMap<>();
+        String body;
+        try {
+            body = client.send(scrape, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (IOException e) {
+            return totals;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return totals;
+        }
+        for (String line : body.split("\n")) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            int labels = line.indexOf('{');
+            int space = line.indexOf(' ');
+            String name = line.substring(0, labels >= 0 && labels < space ? labels : space);
+            if (!METRICS.contains(name)) {
+                continue;
+            }
+            try {
+                double value = Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+                if (!Double.isNaN(value)) {
+                    totals.merge(name, value, Double::sum);
+                }
+            } catch (NumberFormatException e) {
+                // not a sample line
+            }
+        }
+        return totals;
+    }
+}
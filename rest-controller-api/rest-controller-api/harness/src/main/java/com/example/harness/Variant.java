@@ -0,0 +1,46 @@
+package com.example.harness;
+
+import java.nio.file.Path;
+
+/**
+ * The compared implementations, by module and by row label in MEASUREMENTS.md.
+ */
+enum Variant {
+
+    A("variant-a-jersey", "A - Jersey"),
+    C("variant-c-spring", "C - Spring @RestController"),
+    D("variant-d-spring-data", "D - Spring Data REST"),
+    E("variant-e-webflux", "E - Spring WebFlux + R2DBC", true);
+
+    private final String module;
+    private final String label;
+    private final boolean reactive;
+
+    Variant(String module, String label) {
+        this(module, label, false);
+    }
+
+    Variant(String module, String label, boolean reactive) {
+        this.module = module;
+        this.label = label;
+        this.reactive = reactive;
+    }
+
+    String module() {
+        return module;
+    }
+
+    String label() {
+        return label;
+    }
+
+    /** Connects through R2DBC ({@code spring.r2dbc.*}) instead of a JDBC DataSource. */
+    boolean reactive() {
+        return reactive;
+    }
+
+    /** Executable jar built by {@code mvn package}. */
+    Path jar(Path projectRoot) {
+        return projectRoot.resolve(module).resolve("target").resolve(module + "-1.0.0.jar");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.harness;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One variant running in its own JVM, started from its executable jar and
+ * pointed at the harness database. Each variant brings its own web stack and
+ * auto-configuration (Jersey, Spring MVC, Spring Data REST, WebFlux), so they
+ * cannot share a context or a classpath, and a separate JVM also keeps the
+ * load generator out of the measured heap and CPU.
+ */
+final class VariantProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final URI baseUri;
+
+    private VariantProcess(Process process, URI baseUri) {
+        this.process = process;
+        this.baseUri = baseUri;
+    }
+
+    static VariantProcess start(Variant variant, Path projectRoot, EmbeddedDatabase database,
+                                List<String> jvmArgs, List<String> appArgs, Path log) throws IOException, InterruptedException {
+        Path jar = variant.jar(projectRoot);
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Missing " + jar + "; run mvn package first");
+        }
+        int port = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        if (variant.reactive()) {
+            command.add("--spring.r2dbc.url=" + database.r2dbcUrl());
+            command.add("--spring.r2dbc.username=" + database.username());
+            command.add("--spring.r2dbc.password=" + database.password());
+        } else {
+            command.add("--spring.datasource.url=" + database.jdbcUrl() + "?reWriteBatchedInserts=true");
+            command.add("--spring.datasource.username=" + database.username());
+            command.add("--spring.datasource.password=" + database.password());
+        }
+        command.addAll(appArgs);
+
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+
+        VariantProcess running = new VariantProcess(process, URI.create("http://localhost:" + port + "/"));
+        try {
+            running.awaitHealthy(log);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            running.close();
+            throw e;
+        }
+        return running;
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    /** CPU time the variant's JVM has used so far, where the OS reports it. */
+    Optional<Duration> cpuTime() {
+        return process.info().totalCpuDuration();
+    }
+
+    @Override
+    public void close() {
+        // SIGTERM first so Spring shuts down gracefully, then make sure it is gone
+        process.destroy();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitHealthy(Path log) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest health = HttpRequest.newBuilder(baseUri.resolve("actuator/health"))
+            .timeout(Duration.ofSeconds(2))
+            .build();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Variant exited with code " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException("Variant not healthy after " + STARTUP_TIMEOUT.toSeconds() + "s, see " + log);
+    }
+
+    static String javaExecutable() {
+        return ProcessHandle.current().info().command().orElse("java");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
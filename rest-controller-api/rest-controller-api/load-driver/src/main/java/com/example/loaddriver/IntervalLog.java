@@ -0,0 +1,55 @@
+package com.example.loaddriver;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Per-second histograms of a run in HdrHistogram's {@code .hlog} format, values
+ * in nanoseconds. Response time is logged untagged, service time with the tag
+ * {@value #SERVICE_TAG}. Logs of several runs or variants can be merged
+ * without losing tail accuracy ({@code LoadDriver report}, or HdrHistogram's
+ * {@code HistogramLogProcessor}).
+ */
+public final class IntervalLog implements AutoCloseable {
+
+    public static final String SERVICE_TAG = "service";
+
+    private final PrintStream out;
+    private final HistogramLogWriter writer;
+
+    private IntervalLog(PrintStream out, String description) {
+        this.out = out;
+        this.writer = new HistogramLogWriter(out);
+        long now = System.currentTimeMillis();
+        writer.outputComment("[" + description + "]");
+        writer.outputLogFormatVersion();
+        writer.outputStartTime(now);
+        writer.setBaseTime(now);
+        writer.outputLegend();
+    }
+
+    public static IntervalLog create(Path file, String description) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        return new IntervalLog(new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8), description);
+    }
+
+    synchronized void write(Histogram responseTime, Histogram serviceTime) {
+        responseTime.setTag(null);
+        writer.outputIntervalHistogram(responseTime);
+        serviceTime.setTag(SERVICE_TAG);
+        writer.outputIntervalHistogram(serviceTime);
+    }
+
+    @Override
+    public synchronized void close() {
+        out.close();
+    }
+}
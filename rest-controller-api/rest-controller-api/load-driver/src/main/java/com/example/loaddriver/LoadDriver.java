@@ -0,0 +1,186 @@
+package com.example.loaddriver;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Command-line load generator for one variant and one scenario mix.
+ * <pre>
+ *   java -jar load-driver.jar --url http://localhost:8082 --scenario 1 --rate 500 \
+ *       [--duration 60s] [--warmup 10s] [--hlog c-s1.hlog] [--clients N]
+ *       [--items 100000] [--categories 2000] [--seed 42] [--accept application/x-protobuf]
+ *   java -jar load-driver.jar report a.hlog [b.hlog ...] [--service]
+ * </pre>
+ * {@code --rate} runs an open loop (the default, 100 requests/s); {@code --clients}
+ * a closed loop instead. {@code --accept} sets the type the reads ask for
+ * (JSON by default). {@code report} merges interval logs and prints the
+ * response-time distribution, or the service time with {@code --service}.
+ */
+public class LoadDriver {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public static void main(String[] args) {
+        List<String> arguments = Arrays.asList(args);
+        try {
+            if (!arguments.isEmpty() && arguments.get(0).equals("report")) {
+                report(arguments.subList(1, arguments.size()));
+            } else {
+                run(arguments);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.exit(2);
+        } catch (Exception e) {
+            System.err.println("✗ Load run failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void run(List<String> args) throws IOException {
+        URI url = URI.create(value(args, "--url", "http://localhost:8082/").replaceAll("/?$", "/"));
+        Scenario scenario = Scenario.of((int) number(args, "--scenario", 1));
+        Duration duration = duration(value(args, "--duration", "60s"), "--duration");
+        Duration warmup = duration(value(args, "--warmup", "10s"), "--warmup");
+        String clients = value(args, "--clients", null);
+        double rate = number(args, "--rate", 100);
+        if (clients != null && args.contains("--rate")) {
+            throw new IllegalArgumentException("--clients (closed loop) and --rate (open loop) are exclusive");
+        }
+        Scenario.DataShape data = new Scenario.DataShape(number(args, "--items", 100_000), number(args, "--categories", 2000));
+        long seed = number(args, "--seed", 42);
+        String hlog = value(args, "--hlog", null);
+        String accept = value(args, "--accept", LoadGenerator.JSON);
+
+        String load = clients != null ? clients + " clients (closed loop)" : String.format(Locale.ROOT, "%.0f requests/s (open loop)", rate);
+        System.out.println("Scenario " + scenario.number() + " against " + url + ", " + load
+            + (accept.equals(LoadGenerator.JSON) ? "" : ", reads as " + accept));
+
+        try (LoadGenerator generator = new LoadGenerator(url, scenario, data, seed, accept);
+             IntervalLog log = hlog != null
+                 ? IntervalLog.create(Path.of(hlog), "scenario " + scenario.number() + ", " + load + ", " + url)
+                 : null) {
+
+            if (!warmup.isZero()) {
+                System.out.println("Warming up for " + warmup.toSeconds() + "s...");
+                drive(generator, clients, rate, warmup, null);
+            }
+            System.out.println("Measuring for " + duration.toSeconds() + "s...");
+            LoadGenerator.RunResult result = drive(generator, clients, rate, duration, log);
+
+            System.out.printf(Locale.ROOT, "%n  %d requests, %d errors (%.2f%%), %.1f requests/s, %.0f bytes/response%n",
+                result.requests(), result.errors(), result.errorPercent(), result.requestsPerSecond(),
+                result.bytesPerResponse());
+            printDistribution("response time", result.responseTime());
+            printDistribution("service time ", result.serviceTime());
+            if (hlog != null) {
+                System.out.println("\n✓ Interval log written to " + hlog);
+            }
+        }
+    }
+
+    private static LoadGenerator.RunResult drive(LoadGenerator generator, String clients, double rate,
+                                                 Duration duration, IntervalLog log) {
+        return clients != null
+            ? generator.closedLoop((int) number(clients, "--clients"), duration, log)
+            : generator.openLoop(rate, duration, log);
+    }
+
+    private static void report(List<String> args) throws IOException {
+        boolean service = args.contains("--service");
+        String tag = service ? IntervalLog.SERVICE_TAG : null;
+        List<String> files = new ArrayList<>(args);
+        files.remove("--service");
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("report needs at least one .hlog file");
+        }
+
+        Histogram merged = new Histogram(LoadGenerator.LOWEST_NANOS, LoadGenerator.HIGHEST_NANOS,
+            LoadGenerator.SIGNIFICANT_DIGITS);
+        for (String file : files) {
+            Histogram total = new Histogram(LoadGenerator.LOWEST_NANOS, LoadGenerator.HIGHEST_NANOS,
+                LoadGenerator.SIGNIFICANT_DIGITS);
+            HistogramLogReader reader = new HistogramLogReader(file);
+            try {
+                EncodableHistogram interval;
+                while ((interval = reader.nextIntervalHistogram()) != null) {
+                    if (interval instanceof Histogram histogram && Objects.equals(histogram.getTag(), tag)) {
+                        total.add(histogram);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            printDistribution(file, total);
+            merged.add(total);
+        }
+        if (files.size() > 1) {
+            printDistribution("merged", merged);
+        }
+    }
+
+    private static void printDistribution(String label, Histogram histogram) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "  %-14s n=%-9d", label, histogram.getTotalCount()));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(Locale.ROOT, "  p%s %8.2f ms", formatPercentile(percentile),
+                histogram.getValueAtPercentile(percentile) / 1_000_000.0));
+        }
+        line.append(String.format(Locale.ROOT, "  max %8.2f ms", histogram.getMaxValue() / 1_000_000.0));
+        System.out.println(line);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static Duration duration(String value, String flag) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (v.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            }
+            if (v.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(v.endsWith("s") ? v.substring(0, v.length() - 1) : v));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(flag + " must be a duration such as 30s or 2m: " + value);
+        }
+    }
+
+    private static long number(List<String> args, String flag, long defaultValue) {
+        String value = value(args, flag, null);
+        return value != null ? number(value, flag) : defaultValue;
+    }
+
+    private static long number(String value, String flag) {
+        try {
+            return Long.parseLong(value.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(flag + " must be a number: " + value);
+        }
+    }
+
+    private static String value(List<String> args, String flag, String defaultValue) {
+        int index = args.indexOf(flag);
+        if (index < 0) {
+            return defaultValue;
+        }
+        if (index + 1 >= args.size()) {
+            throw new IllegalArgumentException(flag + " needs a value");
+        }
+        return args.get(index + 1);
+    }
+}
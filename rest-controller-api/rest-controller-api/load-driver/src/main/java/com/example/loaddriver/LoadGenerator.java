@@ -0,0 +1,277 @@
+package com.example.loaddriver;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives one scenario mix against a running variant.
+ *
+ * <p>Closed loop: a fixed number of clients, each sending its next request as
+ * soon as the previous one completes (what the JMeter thread groups do).
+ * Open loop: requests start on a fixed schedule whatever the server does, each
+ * on its own virtual thread, and response time is measured from the scheduled
+ * start. A stall then shows up in the tail instead of silently lowering the
+ * request rate (coordinated omission). Service time, from the actual send, is
+ * recorded alongside for comparison.
+ *
+ * <p>Reads ask for {@code application/json} unless another {@code Accept} type
+ * is given (e.g. {@code application/x-protobuf}); writes always do, since
+ * protobuf only covers reads. Response body bytes are counted.
+ */
+public final class LoadGenerator implements AutoCloseable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    public static final String JSON = "application/json";
+    /** Histogram range in nanoseconds: 1 µs resolution up to 5 minutes, 3 significant digits. */
+    static final long LOWEST_NANOS = 1_000;
+    static final long HIGHEST_NANOS = 300_000_000_000L;
+    static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final Scenario scenario;
+    private final Scenario.DataShape data;
+    private final long seed;
+    private final String accept;
+
+    public LoadGenerator(URI baseUri, Scenario scenario, Scenario.DataShape data, long seed) {
+        this(baseUri, scenario, data, seed, JSON);
+    }
+
+    /** @param accept {@code Accept} type of the reads */
+    public LoadGenerator(URI baseUri, Scenario scenario, Scenario.DataShape data, long seed, String accept) {
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.baseUri = baseUri;
+        this.scenario = scenario;
+        this.data = data;
+        this.seed = seed;
+        this.accept = accept;
+    }
+
+    public RunResult closedLoop(int clients, Duration duration) {
+        return closedLoop(clients, duration, null);
+    }
+
+    /** @param log receives an interval histogram every second, may be null */
+    public RunResult closedLoop(int clients, Duration duration, IntervalLog log) {
+        try (Measurement measurement = new Measurement(log)) {
+            long deadline = measurement.start + duration.toNanos();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    SplittableRandom random = new SplittableRandom(seed + c);
+                    executor.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            send(scenario.next(random, data), System.nanoTime(), measurement);
+                        }
+                    });
+                }
+            }
+            return measurement.finish();
+        }
+    }
+
+    public RunResult openLoop(double requestsPerSecond, Duration duration) {
+        return openLoop(requestsPerSecond, duration, null);
+    }
+
+    /** @param log receives an interval histogram every second, may be null */
+    public RunResult openLoop(double requestsPerSecond, Duration duration, IntervalLog log) {
+        try (Measurement measurement = new Measurement(log)) {
+            SplittableRandom random = new SplittableRandom(seed);
+            double intervalNanos = 1_000_000_000.0 / requestsPerSecond;
+            long total = (long) (requestsPerSecond * duration.toNanos() / 1_000_000_000.0);
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long i = 0; i < total; i++) {
+                    long intended = measurement.start + (long) (i * intervalNanos);
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    // Behind schedule: send right away, the delay counts against the server
+                    Scenario.Request request = scenario.next(random, data);
+                    executor.submit(() -> send(request, intended, measurement));
+                }
+            }
+            return measurement.finish();
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private void send(Scenario.Request request, long intendedNanos, Measurement measurement) {
+        HttpRequest.BodyPublisher body = request.body() != null
+            ? HttpRequest.BodyPublishers.ofString(request.body())
+            : HttpRequest.BodyPublishers.noBody();
+        HttpRequest httpRequest = HttpRequest.newBuilder(baseUri.resolve(request.path()))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", JSON)
+            .header("Accept", request.method().equals("GET") ? accept : JSON)
+            .method(request.method(), body)
+            .build();
+
+        long sent = System.nanoTime();
+        boolean failed;
+        long bytes = 0;
+        try {
+            HttpResponse<Long> response = client.send(httpRequest,
+                info -> HttpResponse.BodySubscribers.fromSubscriber(new ByteCounter(), ByteCounter::total));
+            failed = response.statusCode() >= 400;
+            bytes = response.body();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            failed = true;
+        }
+        measurement.record(intendedNanos, sent, System.nanoTime(), failed, bytes);
+    }
+
+    /** Discards a response body, counting its bytes. */
+    private static final class ByteCounter implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private long total;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            for (ByteBuffer buffer : buffers) {
+                total += buffer.remaining();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        long total() {
+            return total;
+        }
+    }
+
+    /**
+     * Recorders for one run. Interval histograms are taken every second, added
+     * to the run totals and, if requested, written to the interval log.
+     */
+    private static final class Measurement implements AutoCloseable {
+
+        private final Recorder responseTime = new Recorder(LOWEST_NANOS, HIGHEST_NANOS, SIGNIFICANT_DIGITS);
+        private final Recorder serviceTime = new Recorder(LOWEST_NANOS, HIGHEST_NANOS, SIGNIFICANT_DIGITS);
+        private final Histogram responseTotal = new Histogram(LOWEST_NANOS, HIGHEST_NANOS, SIGNIFICANT_DIGITS);
+        private final Histogram serviceTotal = new Histogram(LOWEST_NANOS, HIGHEST_NANOS, SIGNIFICANT_DIGITS);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong bodyBytes = new AtomicLong();
+        private final IntervalLog log;
+        private final ScheduledExecutorService ticker;
+        private final long start = System.nanoTime();
+        private Histogram responseInterval;
+        private Histogram serviceInterval;
+
+        Measurement(IntervalLog log) {
+            this.log = log;
+            this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "load-interval");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::flush, 1, 1, TimeUnit.SECONDS);
+        }
+
+        void record(long intendedNanos, long sentNanos, long doneNanos, boolean failed, long bytes) {
+            responseTime.recordValue(clamp(doneNanos - intendedNanos));
+            serviceTime.recordValue(clamp(doneNanos - sentNanos));
+            bodyBytes.addAndGet(bytes);
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        RunResult finish() {
+            long elapsed = System.nanoTime() - start;
+            ticker.shutdownNow();
+            flush();
+            synchronized (this) {
+                return new RunResult(responseTotal.copy(), serviceTotal.copy(), errors.get(), bodyBytes.get(), elapsed);
+            }
+        }
+
+        @Override
+        public void close() {
+            ticker.shutdownNow();
+        }
+
+        private synchronized void flush() {
+            responseInterval = responseTime.getIntervalHistogram(responseInterval);
+            serviceInterval = serviceTime.getIntervalHistogram(serviceInterval);
+            responseTotal.add(responseInterval);
+            serviceTotal.add(serviceInterval);
+            if (log != null) {
+                log.write(responseInterval, serviceInterval);
+            }
+        }
+
+        private static long clamp(long nanos) {
+            return Math.min(Math.max(nanos, LOWEST_NANOS), HIGHEST_NANOS);
+        }
+    }
+
+    /**
+     * Totals of a run: response time (from the intended start) and service
+     * time (from the actual send), in nanoseconds, and response body bytes.
+     */
+    public record RunResult(Histogram responseTime, Histogram serviceTime, long errors, long bodyBytes,
+                            long elapsedNanos) {
+
+        public long requests() {
+            return responseTime.getTotalCount();
+        }
+
+        public double requestsPerSecond() {
+            return requests() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        /** Response-time percentile in milliseconds. */
+        public double percentileMillis(double percentile) {
+            return responseTime.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+
+        public double errorPercent() {
+            return requests() == 0 ? 0 : errors * 100.0 / requests();
+        }
+
+        public double bytesPerResponse() {
+            return requests() == 0 ? 0 : (double) bodyBytes / requests();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.loaddriver;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The four JMeter scenarios of {@code jmeter/generate-jmx.py}, with the request
+ * mixes and thread counts documented in {@code results/MEASUREMENTS.md}.
+ */
+public enum Scenario {
+
+    READ_HEAVY(1, "T0", "Scenario 1 - READ Heavy (50% GET items, 20% GET items by category, 20% GET category items, 10% GET categories)", 200,
+        List.of(
+            new Operation("GET Items Paginated", 50, (r, d) -> Request.get("/items?page=0&size=50")),
+            new Operation("GET Items by Category", 20, (r, d) -> Request.get("/items?categoryId=" + d.categoryId(r) + "&page=0&size=50")),
+            new Operation("GET Category Items", 20, (r, d) -> Request.get("/categories/" + d.categoryId(r) + "/items?page=0&size=50")),
+            new Operation("GET Categories", 10, (r, d) -> Request.get("/categories?page=0&size=50")))),
+
+    JOIN_FILTER(2, "T1", "Scenario 2 - JOIN Filter (70% GET items by category, 30% GET item by ID)", 120,
+        List.of(
+            new Operation("GET Items by Category", 70, (r, d) -> Request.get("/items?categoryId=" + d.categoryId(r) + "&page=0&size=50")),
+            new Operation("GET Item by ID", 30, (r, d) -> Request.get("/items/" + d.itemId(r))))),
+
+    MIXED(3, "T2", "Scenario 3 - Mixed Operations (60% GET, 20% POST, 15% PUT, 5% DELETE)", 100,
+        List.of(
+            new Operation("GET Items", 30, (r, d) -> Request.get("/items?page=0&size=50")),
+            new Operation("GET Item by ID", 30, (r, d) -> Request.get("/items/" + d.itemId(r))),
+            new Operation("POST Item", 20, (r, d) -> Request.post("/items", itemBody("Test Item", 'A', 900, r, d))),
+            new Operation("PUT Item", 15, (r, d) -> Request.put("/items/" + d.itemId(r), itemBody("Updated Item", 'B', 900, r, d))),
+            // Same tail of the id range as the JMeter plan (90000-100000 with the default data)
+            new Operation("DELETE Item", 5, (r, d) -> Request.delete("/items/" + (d.items() - d.items() / 10 + r.nextLong(d.items() / 10 + 1)))))),
+
+    HEAVY_BODY(4, "T3", "Scenario 4 - Heavy Body (50% POST 5KB, 30% PUT 5KB, 20% GET)", 60,
+        List.of(
+            new Operation("POST Heavy Item", 50, (r, d) -> Request.post("/items", itemBody("Heavy Item", 'X', 4800, r, d))),
+            new Operation("PUT Heavy Item", 30, (r, d) -> Request.put("/items/" + d.itemId(r), itemBody("Heavy Updated", 'Y', 4800, r, d))),
+            new Operation("GET Items", 20, (r, d) -> Request.get("/items?page=0&size=50"))));
+
+    private final int number;
+    private final String table;
+    private final String title;
+    private final int defaultClients;
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    Scenario(int number, String table, String title, int defaultClients, List<Operation> operations) {
+        this.number = number;
+        this.table = table;
+        this.title = title;
+        this.defaultClients = defaultClients;
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    public int number() {
+        return number;
+    }
+
+    /** Table id in MEASUREMENTS.md (T0-T3). */
+    public String table() {
+        return table;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    /** Thread count of the JMeter plan. */
+    public int defaultClients() {
+        return defaultClients;
+    }
+
+    public static Scenario of(int number) {
+        for (Scenario scenario : values()) {
+            if (scenario.number == number) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + number + " (expected 1-4)");
+    }
+
+    /** Draws the next request of the mix. */
+    public Request next(SplittableRandom random, DataShape data) {
+        int pick = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return operation.factory().create(random, data);
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    private static String itemBody(String name, char fill, int descriptionLength, SplittableRandom random, DataShape data) {
+        return "{\"name\":\"" + name + " " + (random.nextInt(999_999) + 1)
+            + "\",\"description\":\"" + String.valueOf(fill).repeat(descriptionLength)
+            + "\",\"price\":" + (random.nextInt(1000) + 1) + ".99"
+            + ",\"quantity\":" + (random.nextInt(100) + 1)
+            + ",\"categoryId\":" + data.categoryId(random) + "}";
+    }
+
+    /** Row counts the generated ids are drawn from, as seeded by the DataGenerator. */
+    public record DataShape(long items, long categories) {
+
+        public long itemId(SplittableRandom random) {
+            return random.nextLong(items) + 1;
+        }
+
+        public long categoryId(SplittableRandom random) {
+            return random.nextLong(categories) + 1;
+        }
+    }
+
+    public record Request(String method, String path, String body) {
+
+        public static Request get(String path) {
+            return new Request("GET", path, null);
+        }
+
+        public static Request post(String path, String body) {
+            return new Request("POST", path, body);
+        }
+
+        public static Request put(String path, String body) {
+            return new Request("PUT", path, body);
+        }
+
+        public static Request delete(String path) {
+            return new Request("DELETE", path, null);
+        }
+    }
+
+    private record Operation(String name, int weight, RequestFactory factory) {
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        Request create(SplittableRandom random, DataShape data);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.jersey.config;
+
+import com.example.common.io.BinaryFormats;
+import com.example.common.io.ProtobufWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import org.springframework.boot.autoconfigure.jersey.ResourceConfigCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Binary response bodies, chosen by the {@code Accept} header among the
+ * resources' {@code @Produces} types: CBOR and Smile for every body, Protocol
+ * Buffers ({@code proto/api.proto}) on the Item, Category and page reads.
+ * JSON is listed first and stays the default for a wildcard {@code Accept}.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    public ResourceConfigCustomizer binaryFormatProviders(ObjectMapper objectMapper) {
+        return config -> config
+            .register(new JacksonBinaryBodyWriter(
+                BinaryFormats.cborMapper(objectMapper), BinaryFormats.smileMapper(objectMapper)))
+            .register(new ProtobufBodyWriter(new ProtobufWriter()))
+            .register(new NegotiatedResponseFilter());
+    }
+
+    /** Same type and subtype, parameters aside; never true for a wildcard. */
+    private static boolean is(MediaType expected, MediaType actual) {
+        return expected.getType().equalsIgnoreCase(actual.getType())
+            && expected.getSubtype().equalsIgnoreCase(actual.getSubtype());
+    }
+
+    @Produces({BinaryFormats.CBOR, BinaryFormats.SMILE})
+    static class JacksonBinaryBodyWriter implements MessageBodyWriter<Object> {
+
+        private static final MediaType CBOR = MediaType.valueOf(BinaryFormats.CBOR);
+        private static final MediaType SMILE = MediaType.valueOf(BinaryFormats.SMILE);
+
+        private final ObjectWriter cbor;
+        private final ObjectWriter smile;
+
+        JacksonBinaryBodyWriter(ObjectMapper cborMapper, ObjectMapper smileMapper) {
+            this.cbor = cborMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.smile = smileMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return is(CBOR, mediaType) || is(SMILE, mediaType);
+        }
+
+        @Override
+        public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+            (is(CBOR, mediaType) ? cbor : smile).writeValue(entityStream, value);
+        }
+    }
+
+    @Produces(ProtobufWriter.MEDIA_TYPE)
+    static class ProtobufBodyWriter implements MessageBodyWriter<Object> {
+
+        static final MediaType PROTOBUF = MediaType.valueOf(ProtobufWriter.MEDIA_TYPE);
+
+        private final ProtobufWriter writer;
+
+        ProtobufBodyWriter(ProtobufWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return ProtobufWriter.supports(type) && is(PROTOBUF, mediaType);
+        }
+
+        @Override
+        public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+            if (!writer.canWrite(value)) {
+                throw new IllegalArgumentException("No protobuf message for " + type.getName());
+            }
+            writer.write(value, entityStream);
+        }
+    }
+
+    /**
+     * Error bodies are JSON strings and keep the JSON type whatever was
+     * negotiated; every response varies by {@code Accept}, which caches need to know.
+     */
+    static class NegotiatedResponseFilter implements ContainerResponseFilter {
+
+        @Override
+        public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+            response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            MediaType type = response.getMediaType();
+            if (response.getEntity() instanceof String && type != null
+                    && (is(JacksonBinaryBodyWriter.CBOR, type) || is(JacksonBinaryBodyWriter.SMILE, type)
+                        || is(ProtobufBodyWriter.PROTOBUF, type))) {
+                response.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_TYPE);
+            }
+        }
+    }
+}
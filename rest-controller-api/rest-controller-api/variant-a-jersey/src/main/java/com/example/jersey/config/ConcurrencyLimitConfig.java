@@ -0,0 +1,129 @@
+package com.example.jersey.config;
+
+import com.example.common.limit.ConcurrencyLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jersey.ResourceConfigCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Load shedding at the edge ({@code CONCURRENCY_LIMIT=true}): API requests over
+ * the {@link ConcurrencyLimiter} limit get an immediate 503 with
+ * {@code Retry-After} instead of queueing for a Tomcat thread and a connection.
+ * Exports and imports stream for as long as the data takes and are left out,
+ * as is the actuator, which Jersey serves here as well. A Jersey filter takes
+ * the permit; a servlet filter around Jersey gives it back once the response
+ * has been written, so the limit covers write-out as it does in C and D.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Value("${app.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${app.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${app.concurrency-limit.window:100ms}")
+    private Duration window;
+
+    @Value("${app.concurrency-limit.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${app.concurrency-limit.write-share:0.75}")
+    private double writeShare;
+
+    @Value("${app.concurrency-limit.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter() {
+        return new ConcurrencyLimiter(new ConcurrencyLimiter.Settings(
+            initialLimit, minLimit, maxLimit, window.toMillis(), rttTolerance, writeShare));
+    }
+
+    @Bean
+    public ResourceConfigCustomizer concurrencyLimitCustomizer(ConcurrencyLimiter concurrencyLimiter) {
+        return config -> config.register(new ConcurrencyLimitFilter(concurrencyLimiter, retryAfter));
+    }
+
+    @Bean
+    public FilterRegistrationBean<PermitReleaseFilter> permitReleaseFilter() {
+        return new FilterRegistrationBean<>(new PermitReleaseFilter());
+    }
+
+    @PreMatching
+    static class ConcurrencyLimitFilter implements ContainerRequestFilter {
+
+        // Jersey keeps request properties as servlet request attributes
+        static final String PERMIT = ConcurrencyLimitFilter.class.getName() + ".permit";
+
+        private final ConcurrencyLimiter limiter;
+        private final String retryAfterSeconds;
+
+        ConcurrencyLimitFilter(ConcurrencyLimiter limiter, Duration retryAfter) {
+            this.limiter = limiter;
+            this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        }
+
+        @Override
+        public void filter(ContainerRequestContext request) {
+            String path = request.getUriInfo().getPath();
+            boolean api = path.startsWith("items") || path.startsWith("categories");
+            if (!api || path.endsWith("/export") || path.equals("items/import")) {
+                return;
+            }
+            String method = request.getMethod();
+            boolean read = HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+            ConcurrencyLimiter.Permit permit = limiter.tryAcquire(
+                read ? ConcurrencyLimiter.Priority.READ : ConcurrencyLimiter.Priority.WRITE);
+            if (permit == null) {
+                request.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity("{\"error\":\"Server overloaded, retry later\"}")
+                    .build());
+                return;
+            }
+            request.setProperty(PERMIT, permit);
+        }
+    }
+
+    /** Releases the permit after Jersey has written the entity, or failed to. */
+    static class PermitReleaseFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (request.getAttribute(ConcurrencyLimitFilter.PERMIT) instanceof ConcurrencyLimiter.Permit permit) {
+                    request.removeAttribute(ConcurrencyLimitFilter.PERMIT);
+                    permit.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.jersey.config;
+
+import com.example.common.io.DirectJsonWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jersey.ResourceConfigCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Item, Category and page bodies written by {@link DirectJsonWriter} instead of
+ * Jackson ({@code app.json.direct-writer.enabled}). Jersey prefers a writer
+ * that produces exactly {@code application/json} over Jackson's wildcard one;
+ * requests are still read by Jackson.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.json.direct-writer.enabled", havingValue = "true")
+public class DirectJsonConfig {
+
+    @Bean
+    public DirectJsonWriter directJsonWriter() {
+        return new DirectJsonWriter();
+    }
+
+    @Bean
+    public ResourceConfigCustomizer directJsonBodyWriter(DirectJsonWriter directJsonWriter, ObjectMapper objectMapper) {
+        return config -> config.register(new DirectJsonBodyWriter(directJsonWriter, objectMapper));
+    }
+
+    @Produces(MediaType.APPLICATION_JSON)
+    static class DirectJsonBodyWriter implements MessageBodyWriter<Object> {
+
+        private final DirectJsonWriter writer;
+        private final ObjectWriter fallback;
+
+        DirectJsonBodyWriter(DirectJsonWriter writer, ObjectMapper objectMapper) {
+            this.writer = writer;
+            this.fallback = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return DirectJsonWriter.supports(type) && MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType);
+        }
+
+        @Override
+        public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+            // Rendering and write-out are timed by the request phase interceptor around this
+            if (writer.canWrite(value)) {
+                writer.write(value, entityStream);
+            } else {
+                fallback.writeValue(entityStream, value);
+            }
+        }
+    }
+}
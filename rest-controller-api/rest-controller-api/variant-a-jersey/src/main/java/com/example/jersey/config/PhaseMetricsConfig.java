@@ -0,0 +1,182 @@
+package com.example.jersey.config;
+
+import com.example.common.metrics.RequestPhases;
+import com.example.common.metrics.RequestPhases.Phase;
+import com.example.common.metrics.TimedOutputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.uri.UriTemplate;
+import org.hibernate.SessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jersey.ResourceConfigCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-phase request timers ({@link RequestPhases}, on unless
+ * {@code app.metrics.phases.enabled=false}). A servlet filter brackets each
+ * request, Spring Data reports repository calls, a Hibernate session listener
+ * the connection wait, and Jersey providers supply the route template and time
+ * rendering and write-out of the entity separately.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.metrics.phases.enabled", havingValue = "true", matchIfMissing = true)
+public class PhaseMetricsConfig {
+
+    @Bean
+    public RequestPhases requestPhases() {
+        return new RequestPhases();
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestPhaseFilter> requestPhaseFilter(RequestPhases requestPhases) {
+        FilterRegistrationBean<RequestPhaseFilter> registration =
+            new FilterRegistrationBean<>(new RequestPhaseFilter(requestPhases));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryPhaseListener() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(invocation ->
+                        RequestPhases.record(Phase.REPOSITORY,
+                            invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName(),
+                            invocation.getDuration(TimeUnit.NANOSECONDS))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // With the replica, Hibernate only gets the lazy proxy; the routing data source times the wait
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "false", matchIfMissing = true)
+    public HibernatePropertiesCustomizer connectionPhaseListener() {
+        return properties -> properties.put(
+            AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, ConnectionPhaseListener.class.getName());
+    }
+
+    @Bean
+    public ResourceConfigCustomizer requestPhaseProviders() {
+        return config -> config.register(RouteTemplateFilter.class).register(TimedEntityWriter.class);
+    }
+
+    static class RequestPhaseFilter extends OncePerRequestFilter {
+
+        private final RequestPhases requestPhases;
+
+        RequestPhaseFilter(RequestPhases requestPhases) {
+            this.requestPhases = requestPhases;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return request.getRequestURI().startsWith("/actuator");
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            RequestPhases.Recording recording = requestPhases.start();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                requestPhases.finish(recording);
+            }
+        }
+    }
+
+    /** Hibernate creates one per session, by class name. */
+    public static class ConnectionPhaseListener implements SessionEventListener {
+
+        private long acquisitionStart;
+
+        @Override
+        public void jdbcConnectionAcquisitionStart() {
+            acquisitionStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcConnectionAcquisitionEnd() {
+            RequestPhases.record(Phase.CONNECTION, System.nanoTime() - acquisitionStart);
+        }
+    }
+
+    /** Route template of the matched resource method, e.g. {@code /categories/{id}/items}. */
+    static class RouteTemplateFilter implements ContainerRequestFilter {
+
+        @Override
+        public void filter(ContainerRequestContext request) {
+            RequestPhases.route(route(request));
+        }
+
+        static String route(ContainerRequestContext request) {
+            List<UriTemplate> templates = ((ExtendedUriInfo) request.getUriInfo()).getMatchedTemplates();
+            StringBuilder route = new StringBuilder();
+            // Innermost match first
+            for (int i = templates.size() - 1; i >= 0; i--) {
+                String template = templates.get(i).getTemplate();
+                if (!template.startsWith("/")) {
+                    route.append('/');
+                }
+                route.append(template);
+            }
+            return route.toString().replaceAll("/{2,}", "/");
+        }
+    }
+
+    /** Renders the entity straight into the response; the time inside its writes is write-out. */
+    static class TimedEntityWriter implements WriterInterceptor {
+
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+            if (!RequestPhases.active()) {
+                context.proceed();
+                return;
+            }
+            if (context.getEntity() instanceof StreamingOutput) {
+                // NDJSON exports stream for as long as the data takes; like the async
+                // exports of the Spring variants they are not recorded
+                RequestPhases.route(null);
+                context.proceed();
+                return;
+            }
+            long start = System.nanoTime();
+            OutputStream entity = context.getOutputStream();
+            TimedOutputStream body = new TimedOutputStream(entity);
+            context.setOutputStream(body);
+            try {
+                context.proceed();
+                body.flush();
+            } finally {
+                context.setOutputStream(entity);
+            }
+            RequestPhases.record(Phase.SERIALIZATION, System.nanoTime() - start - body.nanos());
+            RequestPhases.record(Phase.WRITE, body.nanos());
+        }
+    }
+}
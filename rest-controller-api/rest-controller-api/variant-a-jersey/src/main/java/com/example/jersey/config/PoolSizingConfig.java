@@ -0,0 +1,35 @@
+package com.example.jersey.config;
+
+import com.example.common.db.AdaptivePoolSizer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Adaptive pool sizing ({@code ADAPTIVE_POOL=true}): every Hikari pool of the
+ * application, the replica pool included when {@code READ_REPLICA=true}, is
+ * resized at runtime by {@link AdaptivePoolSizer}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.pool-sizer.enabled", havingValue = "true")
+public class PoolSizingConfig {
+
+    @Bean(destroyMethod = "close")
+    public AdaptivePoolSizer adaptivePoolSizer(
+            ObjectProvider<HikariDataSource> dataSources,
+            @Value("${app.datasource.pool-sizer.min-size:5}") int minSize,
+            @Value("${app.datasource.pool-sizer.max-size:60}") int maxSize,
+            @Value("${app.datasource.pool-sizer.interval:1s}") Duration interval,
+            @Value("${app.datasource.pool-sizer.latency-tolerance:2.0}") double latencyTolerance) {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(
+            dataSources.orderedStream().toList(),
+            new AdaptivePoolSizer.Settings(minSize, maxSize, interval, latencyTolerance));
+        sizer.start();
+        return sizer;
+    }
+}
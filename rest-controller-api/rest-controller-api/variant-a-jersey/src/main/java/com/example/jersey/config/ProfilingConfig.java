@@ -0,0 +1,155 @@
+package com.example.jersey.config;
+
+import com.example.common.metrics.RequestAllocations;
+import com.example.common.profiling.JfrRecordings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jersey.ResourceConfigCustomizer;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Profiling mode ({@code app.profiling.enabled}): bytes allocated per request
+ * by route ({@link RequestAllocations}) and fixed-window JFR recordings through
+ * the {@code jfr} actuator endpoint.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true")
+public class ProfilingConfig {
+
+    @Bean
+    public RequestAllocations requestAllocations() {
+        return new RequestAllocations();
+    }
+
+    @Bean
+    public FilterRegistrationBean<AllocationFilter> allocationFilter(RequestAllocations requestAllocations) {
+        FilterRegistrationBean<AllocationFilter> registration =
+            new FilterRegistrationBean<>(new AllocationFilter(requestAllocations));
+        // Right inside the phase filter, so its bookkeeping is not counted
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public ResourceConfigCustomizer allocationRouteFilter() {
+        return config -> config.register(RouteAttributeFilter.class);
+    }
+
+    @Bean(destroyMethod = "close")
+    public JfrRecordings jfrRecordings(@Value("${app.profiling.jfr.directory}") Path directory,
+                                       @Value("${app.profiling.jfr.max-duration:10m}") Duration maxDuration) {
+        return new JfrRecordings(directory, maxDuration, "variant-a");
+    }
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(JfrRecordings jfrRecordings) {
+        return new JfrEndpoint(jfrRecordings);
+    }
+
+    static class AllocationFilter extends OncePerRequestFilter {
+
+        static final String ROUTE_ATTRIBUTE = AllocationFilter.class.getName() + ".route";
+
+        private final RequestAllocations requestAllocations;
+
+        AllocationFilter(RequestAllocations requestAllocations) {
+            this.requestAllocations = requestAllocations;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return request.getRequestURI().startsWith("/actuator");
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            long start = requestAllocations.start();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (request.getAttribute(ROUTE_ATTRIBUTE) instanceof String route) {
+                    requestAllocations.finish(request.getMethod(), route, start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands the matched route template to {@link AllocationFilter}; Jersey keeps
+     * request properties as servlet request attributes.
+     */
+    static class RouteAttributeFilter implements ContainerRequestFilter {
+
+        @Override
+        public void filter(ContainerRequestContext request) {
+            request.setProperty(AllocationFilter.ROUTE_ATTRIBUTE, PhaseMetricsConfig.RouteTemplateFilter.route(request));
+        }
+    }
+
+    /**
+     * {@code GET /actuator/jfr} lists recordings, {@code POST /actuator/jfr}
+     * with {@code {"duration": "60s", "settings": "profile"}} starts one and
+     * {@code GET /actuator/jfr/{id}} downloads it once finished.
+     */
+    @Endpoint(id = "jfr")
+    public static class JfrEndpoint {
+
+        private final JfrRecordings recordings;
+
+        JfrEndpoint(JfrRecordings recordings) {
+            this.recordings = recordings;
+        }
+
+        @ReadOperation
+        public List<JfrRecordings.Info> recordings() {
+            return recordings.list();
+        }
+
+        @WriteOperation
+        public WebEndpointResponse<Object> start(@Nullable String duration, @Nullable String settings) throws IOException {
+            try {
+                JfrRecordings.Info info = recordings.start(
+                    duration != null ? DurationStyle.detectAndParse(duration) : Duration.ofSeconds(60),
+                    settings != null ? settings : "profile");
+                return new WebEndpointResponse<>(info, WebEndpointResponse.STATUS_OK);
+            } catch (IllegalArgumentException e) {
+                return new WebEndpointResponse<>(Map.of("error", e.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+            } catch (IllegalStateException e) {
+                return new WebEndpointResponse<>(Map.of("error", e.getMessage()), 409);
+            }
+        }
+
+        @ReadOperation
+        public WebEndpointResponse<Resource> recording(@Selector long id) {
+            return recordings.file(id)
+                .<WebEndpointResponse<Resource>>map(file -> new WebEndpointResponse<>(new FileSystemResource(file)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.jersey.config;
+
+import com.example.common.metrics.VirtualThreadMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ThreadingConfig {
+
+    @Value("${app.metrics.virtual-threads.pinned-threshold:20ms}")
+    private Duration pinnedThreshold;
+
+    /**
+     * Pinning metrics for the virtual-thread mode ({@code VIRTUAL_THREADS=true}); Hikari
+     * pool wait ({@code hikaricp.connections.acquire/pending}) and thread counts
+     * ({@code jvm.threads.*}, {@code tomcat.threads.*}) are published in both modes.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics(pinnedThreshold);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.jersey.exception;
 
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
@@ -9,6 +10,10 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
 
     @Override
     public Response toResponse(Exception exception) {
+        // Jersey's own errors (406, 415, 405...) keep their status
+        if (exception instanceof WebApplicationException webApplicationException) {
+            return webApplicationException.getResponse();
+        }
         return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
             .entity("{\"error\":\"" + exception.getMessage() + "\"}")
             .build();
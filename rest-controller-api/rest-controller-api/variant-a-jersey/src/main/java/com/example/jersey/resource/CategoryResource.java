@@ -1,22 +1,45 @@
 package com.example.jersey.resource;
 
+import com.example.common.cache.CachedJson;
+import com.example.common.cache.CategoryIdSet;
+import com.example.common.cache.ItemCountCache;
+import com.example.common.cache.JsonResponseCache;
+import com.example.common.cache.ReadThroughCache;
+import com.example.common.cache.ResourceVersion;
+import com.example.common.dto.PageCursor;
 import com.example.common.dto.PageResponse;
+import com.example.common.dto.Projection;
+import com.example.common.io.BinaryFormats;
+import com.example.common.io.NdjsonWriter;
+import com.example.common.io.ProtobufWriter;
 import com.example.common.model.Category;
 import com.example.common.model.Item;
+import com.example.common.model.Versioned;
 import com.example.jersey.repository.CategoryRepository;
+import com.example.jersey.repository.ItemExporter;
 import com.example.jersey.repository.ItemRepository;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Component
 @Path("/categories")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, BinaryFormats.CBOR, BinaryFormats.SMILE})
 @Consumes(MediaType.APPLICATION_JSON)
 public class CategoryResource {
 
@@ -30,57 +53,148 @@ public class CategoryResource {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemExporter itemExporter;
+
+    @Autowired
+    private ItemCountCache itemCountCache;
+
+    @Autowired
+    private CategoryIdSet categoryIdSet;
+
+    @Autowired
+    private ReadThroughCache<Long, Item> itemCache;
+
+    @Autowired
+    private JsonResponseCache jsonCache;
+
+    @Autowired
+    private ReadThroughCache<Long, Category> categoryCache;
+
     @GET
+    @Produces({MediaType.APPLICATION_JSON, BinaryFormats.CBOR, BinaryFormats.SMILE, ProtobufWriter.MEDIA_TYPE})
     public Response getCategories(
             @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("50") int size) {
+            @QueryParam("size") @DefaultValue("50") int size,
+            @QueryParam("fields") String fields,
+            @Context Request request) {
+        
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"fields must be full or summary\"}")
+                .build();
+        }
         
         size = Math.min(size, MAX_SIZE);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Category> categoryPage = categoryRepository.findAll(pageable);
-        
-        PageResponse<Category> response = new PageResponse<>(
-            categoryPage.getContent(),
-            categoryPage.getNumber(),
-            categoryPage.getSize(),
-            categoryPage.getTotalElements()
-        );
+        PageResponse<? extends Versioned> response = findCategoriesPage(pageable, projection.categoryType());
         
-        return Response.ok(response).build();
+        return ConditionalResponses.ok(request, response, ResourceVersion.of(response)).build();
     }
 
     @GET
     @Path("/{id}")
-    public Response getCategoryById(@PathParam("id") Long id) {
-        return categoryRepository.findById(id)
-            .map(category -> Response.ok(category).build())
+    @Produces({MediaType.APPLICATION_JSON, BinaryFormats.CBOR, BinaryFormats.SMILE, ProtobufWriter.MEDIA_TYPE})
+    public Response getCategoryById(
+            @PathParam("id") Long id,
+            @Context Request request,
+            @Context HttpHeaders headers) {
+        if (jsonCache.isEnabled() && JsonResponses.negotiatesJson(request)) {
+            return jsonCache.find(JsonResponseCache.Key.category(id), () -> categoryCache.get(id, categoryRepository::findById))
+                .map(json -> JsonResponses.ok(request, json))
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
+        }
+        
+        // Revalidate on updated_at alone: a current client copy costs no entity load
+        if (!categoryCache.isEnabled() && ConditionalResponses.isConditional(headers)) {
+            Optional<LocalDateTime> updatedAt = categoryRepository.findUpdatedAtById(id);
+            if (updatedAt.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            Response.ResponseBuilder notModified =
+                ConditionalResponses.notModified(request, ResourceVersion.of(updatedAt.get()));
+            if (notModified != null) {
+                return notModified.build();
+            }
+        }
+        
+        return categoryCache.get(id, categoryRepository::findById)
+            .map(category -> ConditionalResponses.ok(request, category, ResourceVersion.of(category)).build())
             .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     @GET
     @Path("/{id}/items")
+    @Produces({MediaType.APPLICATION_JSON, BinaryFormats.CBOR, BinaryFormats.SMILE, ProtobufWriter.MEDIA_TYPE})
     public Response getItemsByCategory(
             @PathParam("id") Long id,
             @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("50") int size) {
+            @QueryParam("size") @DefaultValue("50") int size,
+            @QueryParam("after") String after,
+            @QueryParam("slice") @DefaultValue("false") boolean slice,
+            @QueryParam("fields") String fields,
+            @Context Request request) {
+        
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"fields must be full or summary\"}")
+                .build();
+        }
         
         // Verify category exists
-        if (!categoryRepository.existsById(id)) {
+        if (!categoryIdSet.contains(id, categoryRepository::existsById)) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
         
         size = Math.min(size, MAX_SIZE);
+        
+        // Keyset mode: seek past the cursor so deep pages cost the same as the first one
+        if (after != null) {
+            long afterId;
+            try {
+                afterId = PageCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Invalid cursor\"}")
+                    .build();
+            }
+            
+            List<? extends Versioned> rows = itemRepository.findByCategoryIdAndIdGreaterThanOrderById(
+                id, afterId, Limit.of(size + 1), projection.itemType());
+            
+            PageResponse<? extends Versioned> response = PageResponse.ofCursor(rows, size, afterId == 0, Versioned::getId);
+            return ConditionalResponses.ok(request, response, ResourceVersion.of(response)).build();
+        }
+        
         Pageable pageable = PageRequest.of(page, size);
-        Page<Item> itemPage = itemRepository.findByCategoryId(id, pageable);
         
-        PageResponse<Item> response = new PageResponse<>(
-            itemPage.getContent(),
-            itemPage.getNumber(),
-            itemPage.getSize(),
-            itemPage.getTotalElements()
-        );
+        if (jsonCache.isEnabled() && projection == Projection.FULL && JsonResponses.negotiatesJson(request)) {
+            CachedJson json = jsonCache.get(
+                JsonResponseCache.Key.categoryItems(id, page, size, slice),
+                () -> findItemsPage(id, pageable, slice, Item.class));
+            return JsonResponses.ok(request, json);
+        }
+        
+        PageResponse<? extends Versioned> response = findItemsPage(id, pageable, slice, projection.itemType());
+        return ConditionalResponses.ok(request, response, ResourceVersion.of(response)).build();
+    }
+
+    @GET
+    @Path("/{id}/items/export")
+    @Produces(NdjsonWriter.MEDIA_TYPE)
+    public Response exportItemsByCategory(@PathParam("id") Long id) {
+        if (!categoryIdSet.contains(id, categoryRepository::existsById)) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
         
-        return Response.ok(response).build();
+        StreamingOutput body = out -> itemExporter.export(id, out);
+        return Response.ok(body).build();
     }
 
     @POST
@@ -92,6 +206,7 @@ public class CategoryResource {
         }
         
         Category saved = categoryRepository.save(category);
+        categoryIdSet.add(saved.getId());
         return Response.status(Response.Status.CREATED).entity(saved).build();
     }
 
@@ -103,6 +218,8 @@ public class CategoryResource {
                 existing.setName(category.getName());
                 existing.setDescription(category.getDescription());
                 Category updated = categoryRepository.save(existing);
+                categoryCache.invalidate(id);
+                jsonCache.invalidateCategory(id);
                 return Response.ok(updated).build();
             })
             .orElse(Response.status(Response.Status.NOT_FOUND).build());
@@ -116,6 +233,45 @@ public class CategoryResource {
         }
         
         categoryRepository.deleteById(id);
+        categoryIdSet.remove(id);
+        itemCountCache.categoryRemoved(id);
+        categoryCache.invalidate(id);
+        jsonCache.invalidateCategory(id);
+        // Items of the category are removed by ON DELETE CASCADE
+        itemCache.invalidateAll();
+        jsonCache.invalidateCategoryItems(id);
+        jsonCache.invalidateAllItems();
         return Response.noContent().build();
     }
+
+    private <T extends Versioned> PageResponse<T> findCategoriesPage(Pageable pageable, Class<T> type) {
+        Page<T> categoryPage = categoryRepository.findAllBy(pageable, type);
+        return new PageResponse<>(
+            categoryPage.getContent(),
+            categoryPage.getNumber(),
+            categoryPage.getSize(),
+            categoryPage.getTotalElements()
+        );
+    }
+
+    private <T extends Versioned> PageResponse<T> findItemsPage(
+            Long categoryId, Pageable pageable, boolean slice, Class<T> type) {
+        Slice<T> itemSlice = itemRepository.findAllByCategoryId(categoryId, pageable, type);
+        
+        // Slice mode: no COUNT at all, clients only get hasNext
+        if (slice) {
+            return PageResponse.ofSlice(
+                itemSlice.getContent(), pageable.getPageNumber(), pageable.getPageSize(), itemSlice.hasNext());
+        }
+        
+        long totalElements = itemCountCache.countByCategory(
+            categoryId, () -> itemRepository.countByCategoryId(categoryId));
+        
+        return new PageResponse<>(
+            itemSlice.getContent(),
+            itemSlice.getNumber(),
+            itemSlice.getSize(),
+            totalElements
+        );
+    }
 }
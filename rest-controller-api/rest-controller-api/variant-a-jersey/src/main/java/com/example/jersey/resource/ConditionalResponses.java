@@ -0,0 +1,50 @@
+package com.example.jersey.resource;
+
+import com.example.common.cache.ResourceVersion;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Date;
+
+/**
+ * Weak ETag / Last-Modified handling: responses carry the validators of the
+ * resource and turn into a 304 without a body when the client's copy is
+ * current.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    /** Whether the client sent validators, i.e. the request may end in a 304. */
+    static boolean isConditional(HttpHeaders headers) {
+        return headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null
+            || headers.getHeaderString(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /** A 304 builder when the client's copy is current, otherwise null. */
+    static Response.ResponseBuilder notModified(Request request, ResourceVersion version) {
+        return version.lastModified() >= 0
+            ? request.evaluatePreconditions(new Date(version.lastModified()), etag(version))
+            : request.evaluatePreconditions(etag(version));
+    }
+
+    /** 200 with the entity, or 304 without it, both carrying the validators. */
+    static Response.ResponseBuilder ok(Request request, Object entity, ResourceVersion version) {
+        Response.ResponseBuilder builder = notModified(request, version);
+        if (builder == null) {
+            builder = Response.ok(entity);
+        }
+        builder.tag(etag(version));
+        if (version.lastModified() >= 0) {
+            builder.lastModified(new Date(version.lastModified()));
+        }
+        return builder;
+    }
+
+    private static EntityTag etag(ResourceVersion version) {
+        return new EntityTag(version.tag(), true);
+    }
+}
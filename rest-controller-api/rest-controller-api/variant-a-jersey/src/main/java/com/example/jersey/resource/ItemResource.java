@@ -1,65 +1,187 @@
 package com.example.jersey.resource;
 
+import com.example.common.cache.CachedJson;
+import com.example.common.cache.CategoryIdSet;
+import com.example.common.cache.ItemCountCache;
+import com.example.common.cache.JsonResponseCache;
+import com.example.common.cache.ReadThroughCache;
+import com.example.common.cache.ResourceVersion;
+import com.example.common.dto.BulkResult;
+import com.example.common.dto.ImportResult;
+import com.example.common.dto.PageCursor;
 import com.example.common.dto.PageResponse;
+import com.example.common.dto.Projection;
+import com.example.common.io.BinaryFormats;
+import com.example.common.io.ImportFormatException;
+import com.example.common.io.ItemCopyImporter;
+import com.example.common.io.NdjsonWriter;
+import com.example.common.io.ProtobufWriter;
 import com.example.common.model.Item;
+import com.example.common.model.Versioned;
 import com.example.jersey.repository.CategoryRepository;
+import com.example.jersey.repository.ItemBulkRepository;
+import com.example.jersey.repository.ItemExporter;
 import com.example.jersey.repository.ItemRepository;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Component
 @Path("/items")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, BinaryFormats.CBOR, BinaryFormats.SMILE})
 @Consumes(MediaType.APPLICATION_JSON)
 public class ItemResource {
 
     private static final int DEFAULT_PAGE = 0;
     private static final int DEFAULT_SIZE = 50;
     private static final int MAX_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 10_000;
 
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemExporter itemExporter;
+
+    @Autowired
+    private ItemBulkRepository itemBulkRepository;
+
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ItemCountCache itemCountCache;
+
+    @Autowired
+    private CategoryIdSet categoryIdSet;
+
+    @Autowired
+    private ReadThroughCache<Long, Item> itemCache;
+
+    @Autowired
+    private JsonResponseCache jsonCache;
+
     @GET
+    @Produces({MediaType.APPLICATION_JSON, BinaryFormats.CBOR, BinaryFormats.SMILE, ProtobufWriter.MEDIA_TYPE})
     public Response getItems(
             @QueryParam("page") @DefaultValue("0") int page,
             @QueryParam("size") @DefaultValue("50") int size,
-            @QueryParam("categoryId") Long categoryId) {
+            @QueryParam("categoryId") Long categoryId,
+            @QueryParam("after") String after,
+            @QueryParam("slice") @DefaultValue("false") boolean slice,
+            @QueryParam("fields") String fields,
+            @Context Request request) {
         
         size = Math.min(size, MAX_SIZE);
+        
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"fields must be full or summary\"}")
+                .build();
+        }
+        
+        // Keyset mode: seek past the cursor so deep pages cost the same as the first one
+        if (after != null) {
+            long afterId;
+            try {
+                afterId = PageCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Invalid cursor\"}")
+                    .build();
+            }
+            
+            Limit limit = Limit.of(size + 1);
+            List<? extends Versioned> rows = categoryId != null
+                ? itemRepository.findByCategoryIdAndIdGreaterThanOrderById(categoryId, afterId, limit, projection.itemType())
+                : itemRepository.findByIdGreaterThanOrderById(afterId, limit, projection.itemType());
+            
+            PageResponse<? extends Versioned> response = PageResponse.ofCursor(rows, size, afterId == 0, Versioned::getId);
+            return ConditionalResponses.ok(request, response, ResourceVersion.of(response)).build();
+        }
+        
         Pageable pageable = PageRequest.of(page, size);
         
-        Page<Item> itemPage;
-        if (categoryId != null) {
-            itemPage = itemRepository.findByCategoryId(categoryId, pageable);
-        } else {
-            itemPage = itemRepository.findAll(pageable);
+        // Category listings are shared with /categories/{id}/items in the JSON cache
+        if (categoryId != null && jsonCache.isEnabled() && projection == Projection.FULL
+                && JsonResponses.negotiatesJson(request)) {
+            CachedJson json = jsonCache.get(
+                JsonResponseCache.Key.categoryItems(categoryId, page, size, slice),
+                () -> findItemsPage(categoryId, pageable, slice, Item.class));
+            return JsonResponses.ok(request, json);
         }
         
-        PageResponse<Item> response = new PageResponse<>(
-            itemPage.getContent(),
-            itemPage.getNumber(),
-            itemPage.getSize(),
-            itemPage.getTotalElements()
-        );
+        PageResponse<? extends Versioned> response = findItemsPage(categoryId, pageable, slice, projection.itemType());
+        return ConditionalResponses.ok(request, response, ResourceVersion.of(response)).build();
+    }
+
+    @GET
+    @Path("/export")
+    @Produces(NdjsonWriter.MEDIA_TYPE)
+    public Response exportItems(@QueryParam("categoryId") Long categoryId) {
+        if (categoryId != null && !categoryIdSet.contains(categoryId, categoryRepository::existsById)) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
         
-        return Response.ok(response).build();
+        // Rows are written while the cursor is read, after this method returns
+        StreamingOutput body = out -> itemExporter.export(categoryId, out);
+        return Response.ok(body).build();
     }
 
     @GET
     @Path("/{id}")
-    public Response getItemById(@PathParam("id") Long id) {
-        return itemRepository.findById(id)
-            .map(item -> Response.ok(item).build())
+    @Produces({MediaType.APPLICATION_JSON, BinaryFormats.CBOR, BinaryFormats.SMILE, ProtobufWriter.MEDIA_TYPE})
+    public Response getItemById(
+            @PathParam("id") Long id,
+            @Context Request request,
+            @Context HttpHeaders headers) {
+        if (jsonCache.isEnabled() && JsonResponses.negotiatesJson(request)) {
+            return jsonCache.find(JsonResponseCache.Key.item(id), () -> itemCache.get(id, itemRepository::findById))
+                .map(json -> JsonResponses.ok(request, json))
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
+        }
+        
+        // Revalidate on updated_at alone: a current client copy costs no entity load
+        if (!itemCache.isEnabled() && ConditionalResponses.isConditional(headers)) {
+            Optional<LocalDateTime> updatedAt = itemRepository.findUpdatedAtById(id);
+            if (updatedAt.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            Response.ResponseBuilder notModified =
+                ConditionalResponses.notModified(request, ResourceVersion.of(updatedAt.get()));
+            if (notModified != null) {
+                return notModified.build();
+            }
+        }
+        
+        return itemCache.get(id, itemRepository::findById)
+            .map(item -> ConditionalResponses.ok(request, item, ResourceVersion.of(item)).build())
             .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
@@ -83,13 +205,25 @@ public class ItemResource {
         }
         
         // Verify category exists
-        if (!categoryRepository.existsById(item.getCategoryId())) {
+        if (!categoryIdSet.contains(item.getCategoryId(), categoryRepository::existsById)) {
             return Response.status(Response.Status.BAD_REQUEST)
                 .entity("{\"error\":\"Category not found\"}")
                 .build();
         }
         
-        Item saved = itemRepository.save(item);
+        Item saved;
+        try {
+            saved = itemRepository.save(item);
+        } catch (DataIntegrityViolationException e) {
+            if (forgetMissingCategory(List.of(item.getCategoryId())) == null) {
+                throw e;
+            }
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"Category not found\"}")
+                .build();
+        }
+        itemCountCache.itemAdded(saved.getCategoryId());
+        jsonCache.invalidateCategoryItems(saved.getCategoryId());
         return Response.status(Response.Status.CREATED).entity(saved).build();
     }
 
@@ -98,6 +232,7 @@ public class ItemResource {
     public Response updateItem(@PathParam("id") Long id, Item item) {
         return itemRepository.findById(id)
             .map(existing -> {
+                Long previousCategoryId = existing.getCategoryId();
                 existing.setName(item.getName());
                 existing.setDescription(item.getDescription());
                 existing.setPrice(item.getPrice());
@@ -105,7 +240,7 @@ public class ItemResource {
                 
                 if (item.getCategoryId() != null && 
                     !item.getCategoryId().equals(existing.getCategoryId())) {
-                    if (!categoryRepository.existsById(item.getCategoryId())) {
+                    if (!categoryIdSet.contains(item.getCategoryId(), categoryRepository::existsById)) {
                         return Response.status(Response.Status.BAD_REQUEST)
                             .entity("{\"error\":\"Category not found\"}")
                             .build();
@@ -113,7 +248,24 @@ public class ItemResource {
                     existing.setCategoryId(item.getCategoryId());
                 }
                 
-                Item updated = itemRepository.save(existing);
+                Item updated;
+                try {
+                    updated = itemRepository.save(existing);
+                } catch (DataIntegrityViolationException e) {
+                    if (forgetMissingCategory(List.of(existing.getCategoryId())) == null) {
+                        throw e;
+                    }
+                    return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\":\"Category not found\"}")
+                        .build();
+                }
+                itemCache.invalidate(id);
+                jsonCache.invalidateItem(id);
+                jsonCache.invalidateCategoryItems(previousCategoryId);
+                if (!previousCategoryId.equals(updated.getCategoryId())) {
+                    itemCountCache.itemMoved(previousCategoryId, updated.getCategoryId());
+                    jsonCache.invalidateCategoryItems(updated.getCategoryId());
+                }
                 return Response.ok(updated).build();
             })
             .orElse(Response.status(Response.Status.NOT_FOUND).build());
@@ -122,11 +274,252 @@ public class ItemResource {
     @DELETE
     @Path("/{id}")
     public Response deleteItem(@PathParam("id") Long id) {
-        if (!itemRepository.existsById(id)) {
-            return Response.status(Response.Status.NOT_FOUND).build();
+        return itemRepository.findById(id)
+            .map(existing -> {
+                itemRepository.delete(existing);
+                itemCache.invalidate(id);
+                jsonCache.invalidateItem(id);
+                jsonCache.invalidateCategoryItems(existing.getCategoryId());
+                itemCountCache.itemRemoved(existing.getCategoryId());
+                return Response.noContent().build();
+            })
+            .orElse(Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    @POST
+    @Path("/bulk")
+    public Response createItems(List<Item> items) {
+        String error = validateBulk(items, true);
+        if (error != null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"" + error + "\"}")
+                .build();
+        }
+        
+        List<Long> ids;
+        try {
+            ids = itemBulkRepository.insertAll(items);
+        } catch (DataIntegrityViolationException e) {
+            Long missing = forgetMissingCategory(items.stream().map(Item::getCategoryId).distinct().toList());
+            if (missing == null) {
+                throw e;
+            }
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"Category not found: " + missing + "\"}")
+                .build();
+        }
+        
+        items.stream()
+            .collect(Collectors.groupingBy(Item::getCategoryId, Collectors.counting()))
+            .forEach((categoryId, count) -> {
+                itemCountCache.itemsAdded(categoryId, count);
+                jsonCache.invalidateCategoryItems(categoryId);
+            });
+        return Response.status(Response.Status.CREATED).entity(new BulkResult(ids)).build();
+    }
+
+    @PUT
+    @Path("/bulk")
+    public Response updateItems(List<Item> items) {
+        String error = validateBulk(items, false);
+        if (error != null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"" + error + "\"}")
+                .build();
+        }
+        
+        List<Long> ids = items.stream().map(Item::getId).toList();
+        Map<Long, Long> previousCategoryIds = itemBulkRepository.findCategoryIds(ids);
+        for (Item item : items) {
+            Long previousCategoryId = previousCategoryIds.get(item.getId());
+            if (previousCategoryId == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\":\"Item not found: " + item.getId() + "\"}")
+                    .build();
+            }
+            if (item.getCategoryId() == null) {
+                item.setCategoryId(previousCategoryId);
+            }
+        }
+        
+        try {
+            itemBulkRepository.updateAll(items);
+        } catch (DataIntegrityViolationException e) {
+            Long missing = forgetMissingCategory(items.stream().map(Item::getCategoryId).distinct().toList());
+            if (missing == null) {
+                throw e;
+            }
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"Category not found: " + missing + "\"}")
+                .build();
+        }
+        
+        Set<Long> changedCategoryIds = new HashSet<>();
+        for (Item item : items) {
+            Long previousCategoryId = previousCategoryIds.get(item.getId());
+            itemCache.invalidate(item.getId());
+            jsonCache.invalidateItem(item.getId());
+            changedCategoryIds.add(previousCategoryId);
+            changedCategoryIds.add(item.getCategoryId());
+            if (!previousCategoryId.equals(item.getCategoryId())) {
+                itemCountCache.itemMoved(previousCategoryId, item.getCategoryId());
+            }
+        }
+        changedCategoryIds.forEach(jsonCache::invalidateCategoryItems);
+        return Response.ok(new BulkResult(ids)).build();
+    }
+
+    @DELETE
+    @Path("/bulk")
+    public Response deleteItems(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"Item IDs are required\"}")
+                .build();
+        }
+        if (ids.size() > MAX_BULK_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"At most " + MAX_BULK_SIZE + " items per request\"}")
+                .build();
+        }
+        
+        Map<Long, Long> deleted = itemBulkRepository.deleteAll(ids);
+        
+        deleted.keySet().forEach(id -> {
+            itemCache.invalidate(id);
+            jsonCache.invalidateItem(id);
+        });
+        deleted.values().stream()
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+            .forEach((categoryId, count) -> {
+                itemCountCache.itemsRemoved(categoryId, count);
+                jsonCache.invalidateCategoryItems(categoryId);
+            });
+        return Response.ok(new BulkResult(new ArrayList<>(deleted.keySet()))).build();
+    }
+
+    @POST
+    @Path("/import")
+    @Consumes({"text/csv", NdjsonWriter.MEDIA_TYPE})
+    public Response importItems(
+            @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        
+        // @Consumes has already turned other content types away with a 415
+        ItemCopyImporter.Format format = ItemCopyImporter.Format.fromMediaType(contentType).orElseThrow();
+        ImportResult result;
+        try {
+            result = itemBulkRepository.copyIn(body, format);
+        } catch (ImportFormatException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"" + e.getMessage() + "\"}")
+                .build();
+        } catch (DataIntegrityViolationException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"Import rejected by the database\"}")
+                .build();
+        }
+        
+        // New rows can land in any category
+        itemCountCache.clear();
+        jsonCache.invalidateAllCategoryItems();
+        return Response.ok(result).build();
+    }
+
+    // Checks every item first, then each distinct category once for the whole batch
+    private String validateBulk(List<Item> items, boolean create) {
+        if (items == null || items.isEmpty()) {
+            return "Items are required";
+        }
+        if (items.size() > MAX_BULK_SIZE) {
+            return "At most " + MAX_BULK_SIZE + " items per request";
         }
         
-        itemRepository.deleteById(id);
-        return Response.noContent().build();
+        Set<Long> ids = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item == null) {
+                return "Item " + i + " is empty";
+            }
+            if (!create && item.getId() == null) {
+                return "Item " + i + ": ID is required";
+            }
+            if (!create && !ids.add(item.getId())) {
+                return "Item " + i + ": duplicate ID " + item.getId();
+            }
+            if (item.getName() == null || item.getName().trim().isEmpty()) {
+                return "Item " + i + ": Name is required";
+            }
+            if (item.getPrice() == null) {
+                return "Item " + i + ": Price is required";
+            }
+            if (item.getQuantity() == null) {
+                return "Item " + i + ": Quantity is required";
+            }
+            if (item.getCategoryId() != null) {
+                categoryIds.add(item.getCategoryId());
+            } else if (create) {
+                return "Item " + i + ": Category ID is required";
+            }
+        }
+        
+        for (Long categoryId : categoryIds) {
+            if (!categoryIdSet.contains(categoryId, categoryRepository::existsById)) {
+                return "Category not found: " + categoryId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The category id set only learns ids, so a category deleted outside the API
+     * passes the check and the write then fails on the foreign key. Forgets the
+     * categories that are gone and returns the first, or null if none is.
+     */
+    private Long forgetMissingCategory(Collection<Long> categoryIds) {
+        Long missing = null;
+        for (Long categoryId : categoryIds) {
+            if (!categoryRepository.existsById(categoryId)) {
+                categoryIdSet.remove(categoryId);
+                if (missing == null) {
+                    missing = categoryId;
+                }
+            }
+        }
+        return missing;
+    }
+
+    private <T extends Versioned> PageResponse<T> findItemsPage(
+            Long categoryId, Pageable pageable, boolean slice, Class<T> type) {
+        // An unknown category has no items; answered without a COUNT, so scanning
+        // ids leaves no entries in the count cache
+        if (categoryId != null && !categoryIdSet.contains(categoryId, categoryRepository::existsById)) {
+            List<T> none = List.of();
+            return slice
+                ? PageResponse.ofSlice(none, pageable.getPageNumber(), pageable.getPageSize(), false)
+                : new PageResponse<>(none, pageable.getPageNumber(), pageable.getPageSize(), 0);
+        }
+        
+        Slice<T> itemSlice = categoryId != null
+            ? itemRepository.findAllByCategoryId(categoryId, pageable, type)
+            : itemRepository.findAllBy(pageable, type);
+        
+        // Slice mode: no COUNT at all, clients only get hasNext
+        if (slice) {
+            return PageResponse.ofSlice(
+                itemSlice.getContent(), pageable.getPageNumber(), pageable.getPageSize(), itemSlice.hasNext());
+        }
+        
+        long totalElements = categoryId != null
+            ? itemCountCache.countByCategory(categoryId, () -> itemRepository.countByCategoryId(categoryId))
+            : itemCountCache.total(itemRepository::count);
+        
+        return new PageResponse<>(
+            itemSlice.getContent(),
+            itemSlice.getNumber(),
+            itemSlice.getSize(),
+            totalElements
+        );
     }
 }
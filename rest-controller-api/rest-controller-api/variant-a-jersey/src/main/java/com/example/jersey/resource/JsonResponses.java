@@ -0,0 +1,41 @@
+package com.example.jersey.resource;
+
+import com.example.common.cache.CachedJson;
+import com.example.common.io.BinaryFormats;
+import com.example.common.io.ProtobufWriter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+
+import java.util.List;
+
+/**
+ * Responses for pre-serialized JSON bodies: the bytes are written as-is,
+ * bypassing the Jackson provider.
+ */
+final class JsonResponses {
+
+    // The resources' @Produces types, JSON first so that it wins a wildcard
+    private static final List<Variant> FORMATS = Variant.mediaTypes(MediaType.APPLICATION_JSON_TYPE,
+        MediaType.valueOf(BinaryFormats.CBOR), MediaType.valueOf(BinaryFormats.SMILE),
+        MediaType.valueOf(ProtobufWriter.MEDIA_TYPE)).build();
+
+    private JsonResponses() {
+    }
+
+    /**
+     * Whether content negotiation picks JSON, the only format the cache holds;
+     * otherwise the request takes the negotiated path.
+     */
+    static boolean negotiatesJson(Request request) {
+        Variant variant = request.selectVariant(FORMATS);
+        return variant != null && MediaType.APPLICATION_JSON_TYPE.isCompatible(variant.getMediaType());
+    }
+
+    static Response ok(Request request, CachedJson json) {
+        return ConditionalResponses.ok(request, json.body(), json.version())
+            .type(MediaType.APPLICATION_JSON_TYPE)
+            .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.spring.config;
+
+import com.example.common.io.BinaryFormats;
+import com.example.common.io.ProtobufWriter;
+import com.example.common.metrics.RequestPhases;
+import com.example.common.metrics.RequestPhases.Phase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary response bodies, chosen by the {@code Accept} header: CBOR and Smile
+ * for every body, Protocol Buffers ({@code proto/api.proto}) for Item,
+ * Category and page bodies. JSON stays the default for a wildcard {@code Accept}
+ * and requests are always read as JSON.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    // Same class as Spring's defaults, so these replace them with mappers configured like the JSON one
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(BinaryFormats.cborMapper(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(BinaryFormats.smileMapper(objectMapper));
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Last, so it is never picked for a wildcard Accept
+        converters.add(new ProtobufHttpMessageConverter(new ProtobufWriter()));
+    }
+
+    static class ProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+        private final ProtobufWriter writer;
+
+        ProtobufHttpMessageConverter(ProtobufWriter writer) {
+            super(MediaType.parseMediaType(ProtobufWriter.MEDIA_TYPE));
+            this.writer = writer;
+        }
+
+        @Override
+        protected boolean supports(Class<?> clazz) {
+            return ProtobufWriter.supports(clazz);
+        }
+
+        @Override
+        protected boolean canRead(MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+            throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+        }
+
+        @Override
+        protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+            if (!writer.canWrite(value)) {
+                throw new HttpMessageNotWritableException("No protobuf message for " + value.getClass().getName());
+            }
+            long start = System.nanoTime();
+            byte[] body = writer.toByteArray(value);
+            long encoded = System.nanoTime();
+            outputMessage.getHeaders().setContentLength(body.length);
+            outputMessage.getBody().write(body);
+            RequestPhases.record(Phase.SERIALIZATION, encoded - start);
+            RequestPhases.record(Phase.WRITE, System.nanoTime() - encoded);
+        }
+    }
+
+    /**
+     * Error bodies are JSON strings; the string converter would otherwise label
+     * them with the negotiated binary type. Every body also varies by
+     * {@code Accept} now, which caches need to know.
+     */
+    @ControllerAdvice
+    static class NegotiatedBodyAdvice implements ResponseBodyAdvice<Object> {
+
+        private static final Set<MediaType> BINARY_TYPES = Set.of(
+            MediaType.parseMediaType(BinaryFormats.CBOR),
+            MediaType.parseMediaType(BinaryFormats.SMILE),
+            MediaType.parseMediaType(ProtobufWriter.MEDIA_TYPE));
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            if (body instanceof String && BINARY_TYPES.contains(selectedContentType.removeQualityValue())) {
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            }
+            return body;
+        }
+    }
+}
@@ -1,16 +1,49 @@
 package com.example.spring.controller;
 
+import com.example.common.cache.CachedJson;
+import com.example.common.cache.CategoryIdSet;
+import com.example.common.cache.ItemCountCache;
+import com.example.common.cache.JsonResponseCache;
+import com.example.common.cache.ReadThroughCache;
+import com.example.common.cache.ResourceVersion;
+import com.example.common.dto.BulkResult;
+import com.example.common.dto.ImportResult;
+import com.example.common.dto.PageCursor;
 import com.example.common.dto.PageResponse;
+import com.example.common.dto.Projection;
+import com.example.common.io.ImportFormatException;
+import com.example.common.io.ItemCopyImporter;
+import com.example.common.io.NdjsonWriter;
 import com.example.common.model.Item;
+import com.example.common.model.Versioned;
 import com.example.spring.repository.CategoryRepository;
+import com.example.spring.repository.ItemBulkRepository;
+import com.example.spring.repository.ItemExporter;
 import com.example.spring.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/items")
@@ -19,43 +52,120 @@ public class ItemController {
     private static final int DEFAULT_PAGE = 0;
     private static final int DEFAULT_SIZE = 50;
     private static final int MAX_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 10_000;
 
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemExporter itemExporter;
+
+    @Autowired
+    private ItemBulkRepository itemBulkRepository;
+
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ItemCountCache itemCountCache;
+
+    @Autowired
+    private CategoryIdSet categoryIdSet;
+
+    @Autowired
+    private ReadThroughCache<Long, Item> itemCache;
+
+    @Autowired
+    private JsonResponseCache jsonCache;
+
     @GetMapping
-    public ResponseEntity<PageResponse<Item>> getItems(
+    public ResponseEntity<?> getItems(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
-            @RequestParam(required = false) Long categoryId) {
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
         
         size = Math.min(size, MAX_SIZE);
+        
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"fields must be full or summary\"}");
+        }
+        
+        // Keyset mode: seek past the cursor so deep pages cost the same as the first one
+        if (after != null) {
+            long afterId;
+            try {
+                afterId = PageCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                    .body("{\"error\":\"Invalid cursor\"}");
+            }
+            
+            Limit limit = Limit.of(size + 1);
+            List<? extends Versioned> rows = categoryId != null
+                ? itemRepository.findByCategoryIdAndIdGreaterThanOrderById(categoryId, afterId, limit, projection.itemType())
+                : itemRepository.findByIdGreaterThanOrderById(afterId, limit, projection.itemType());
+            
+            PageResponse<? extends Versioned> response = PageResponse.ofCursor(rows, size, afterId == 0, Versioned::getId);
+            return ConditionalResponses.ok(ResourceVersion.of(response)).body(response);
+        }
+        
         Pageable pageable = PageRequest.of(page, size);
         
-        Page<Item> itemPage;
-        if (categoryId != null) {
-            itemPage = itemRepository.findByCategoryId(categoryId, pageable);
-        } else {
-            itemPage = itemRepository.findAll(pageable);
+        // Category listings are shared with /categories/{id}/items in the JSON cache
+        if (categoryId != null && jsonCache.isEnabled() && projection == Projection.FULL
+                && JsonResponses.negotiatesJson(request)) {
+            CachedJson json = jsonCache.get(
+                JsonResponseCache.Key.categoryItems(categoryId, page, size, slice),
+                () -> findItemsPage(categoryId, pageable, slice, Item.class));
+            return JsonResponses.ok(json);
         }
         
-        PageResponse<Item> response = new PageResponse<>(
-            itemPage.getContent(),
-            itemPage.getNumber(),
-            itemPage.getSize(),
-            itemPage.getTotalElements()
-        );
+        PageResponse<? extends Versioned> response = findItemsPage(categoryId, pageable, slice, projection.itemType());
+        return ConditionalResponses.ok(ResourceVersion.of(response)).body(response);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestParam(required = false) Long categoryId) {
+        if (categoryId != null && !categoryIdSet.contains(categoryId, categoryRepository::existsById)) {
+            return ResponseEntity.notFound().build();
+        }
         
-        return ResponseEntity.ok(response);
+        // Rows are written while the cursor is read, on the async request thread
+        StreamingResponseBody body = out -> itemExporter.export(categoryId, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))
+            .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-        return itemRepository.findById(id)
-            .map(ResponseEntity::ok)
+    public ResponseEntity<?> getItemById(@PathVariable Long id, WebRequest request) {
+        if (jsonCache.isEnabled() && JsonResponses.negotiatesJson(request)) {
+            return jsonCache.find(JsonResponseCache.Key.item(id), () -> itemCache.get(id, itemRepository::findById))
+                .map(JsonResponses::ok)
+                .orElse(ResponseEntity.notFound().build());
+        }
+        
+        // Revalidate on updated_at alone: a current client copy costs no entity load
+        if (!itemCache.isEnabled() && ConditionalResponses.isConditional(request)) {
+            Optional<LocalDateTime> updatedAt = itemRepository.findUpdatedAtById(id);
+            if (updatedAt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (ConditionalResponses.notModified(request, ResourceVersion.of(updatedAt.get()))) {
+                return null;
+            }
+        }
+        
+        return itemCache.get(id, itemRepository::findById)
+            .map(item -> ConditionalResponses.ok(ResourceVersion.of(item)).body(item))
             .orElse(ResponseEntity.notFound().build());
     }
 
@@ -76,12 +186,23 @@ public class ItemController {
         }
         
         // Verify category exists
-        if (!categoryRepository.existsById(item.getCategoryId())) {
+        if (!categoryIdSet.contains(item.getCategoryId(), categoryRepository::existsById)) {
             return ResponseEntity.badRequest()
                 .body("{\"error\":\"Category not found\"}");
         }
         
-        Item saved = itemRepository.save(item);
+        Item saved;
+        try {
+            saved = itemRepository.save(item);
+        } catch (DataIntegrityViolationException e) {
+            if (forgetMissingCategory(List.of(item.getCategoryId())) == null) {
+                throw e;
+            }
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"Category not found\"}");
+        }
+        itemCountCache.itemAdded(saved.getCategoryId());
+        jsonCache.invalidateCategoryItems(saved.getCategoryId());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
@@ -92,6 +213,7 @@ public class ItemController {
         
         return itemRepository.findById(id)
             .map(existing -> {
+                Long previousCategoryId = existing.getCategoryId();
                 existing.setName(item.getName());
                 existing.setDescription(item.getDescription());
                 existing.setPrice(item.getPrice());
@@ -99,14 +221,30 @@ public class ItemController {
                 
                 if (item.getCategoryId() != null && 
                     !item.getCategoryId().equals(existing.getCategoryId())) {
-                    if (!categoryRepository.existsById(item.getCategoryId())) {
+                    if (!categoryIdSet.contains(item.getCategoryId(), categoryRepository::existsById)) {
                         return ResponseEntity.badRequest()
                             .body("{\"error\":\"Category not found\"}");
                     }
                     existing.setCategoryId(item.getCategoryId());
                 }
                 
-                Item updated = itemRepository.save(existing);
+                Item updated;
+                try {
+                    updated = itemRepository.save(existing);
+                } catch (DataIntegrityViolationException e) {
+                    if (forgetMissingCategory(List.of(existing.getCategoryId())) == null) {
+                        throw e;
+                    }
+                    return ResponseEntity.badRequest()
+                        .body("{\"error\":\"Category not found\"}");
+                }
+                itemCache.invalidate(id);
+                jsonCache.invalidateItem(id);
+                jsonCache.invalidateCategoryItems(previousCategoryId);
+                if (!previousCategoryId.equals(updated.getCategoryId())) {
+                    itemCountCache.itemMoved(previousCategoryId, updated.getCategoryId());
+                    jsonCache.invalidateCategoryItems(updated.getCategoryId());
+                }
                 return ResponseEntity.ok(updated);
             })
             .orElse(ResponseEntity.notFound().build());
@@ -114,11 +252,242 @@ public class ItemController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        if (!itemRepository.existsById(id)) {
-            return ResponseEntity.notFound().build();
+        return itemRepository.findById(id)
+            .map(existing -> {
+                itemRepository.delete(existing);
+                itemCache.invalidate(id);
+                jsonCache.invalidateItem(id);
+                jsonCache.invalidateCategoryItems(existing.getCategoryId());
+                itemCountCache.itemRemoved(existing.getCategoryId());
+                return ResponseEntity.noContent().<Void>build();
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createItems(@RequestBody List<Item> items) {
+        String error = validateBulk(items, true);
+        if (error != null) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"" + error + "\"}");
+        }
+        
+        List<Long> ids;
+        try {
+            ids = itemBulkRepository.insertAll(items);
+        } catch (DataIntegrityViolationException e) {
+            Long missing = forgetMissingCategory(items.stream().map(Item::getCategoryId).distinct().toList());
+            if (missing == null) {
+                throw e;
+            }
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"Category not found: " + missing + "\"}");
         }
         
-        itemRepository.deleteById(id);
-        return ResponseEntity.noContent().build();
+        items.stream()
+            .collect(Collectors.groupingBy(Item::getCategoryId, Collectors.counting()))
+            .forEach((categoryId, count) -> {
+                itemCountCache.itemsAdded(categoryId, count);
+                jsonCache.invalidateCategoryItems(categoryId);
+            });
+        return ResponseEntity.status(HttpStatus.CREATED).body(new BulkResult(ids));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<?> updateItems(@RequestBody List<Item> items) {
+        String error = validateBulk(items, false);
+        if (error != null) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"" + error + "\"}");
+        }
+        
+        List<Long> ids = items.stream().map(Item::getId).toList();
+        Map<Long, Long> previousCategoryIds = itemBulkRepository.findCategoryIds(ids);
+        for (Item item : items) {
+            Long previousCategoryId = previousCategoryIds.get(item.getId());
+            if (previousCategoryId == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("{\"error\":\"Item not found: " + item.getId() + "\"}");
+            }
+            if (item.getCategoryId() == null) {
+                item.setCategoryId(previousCategoryId);
+            }
+        }
+        
+        try {
+            itemBulkRepository.updateAll(items);
+        } catch (DataIntegrityViolationException e) {
+            Long missing = forgetMissingCategory(items.stream().map(Item::getCategoryId).distinct().toList());
+            if (missing == null) {
+                throw e;
+            }
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"Category not found: " + missing + "\"}");
+        }
+        
+        Set<Long> changedCategoryIds = new HashSet<>();
+        for (Item item : items) {
+            Long previousCategoryId = previousCategoryIds.get(item.getId());
+            itemCache.invalidate(item.getId());
+            jsonCache.invalidateItem(item.getId());
+            changedCategoryIds.add(previousCategoryId);
+            changedCategoryIds.add(item.getCategoryId());
+            if (!previousCategoryId.equals(item.getCategoryId())) {
+                itemCountCache.itemMoved(previousCategoryId, item.getCategoryId());
+            }
+        }
+        changedCategoryIds.forEach(jsonCache::invalidateCategoryItems);
+        return ResponseEntity.ok(new BulkResult(ids));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<?> deleteItems(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"Item IDs are required\"}");
+        }
+        if (ids.size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"At most " + MAX_BULK_SIZE + " items per request\"}");
+        }
+        
+        Map<Long, Long> deleted = itemBulkRepository.deleteAll(ids);
+        
+        deleted.keySet().forEach(id -> {
+            itemCache.invalidate(id);
+            jsonCache.invalidateItem(id);
+        });
+        deleted.values().stream()
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+            .forEach((categoryId, count) -> {
+                itemCountCache.itemsRemoved(categoryId, count);
+                jsonCache.invalidateCategoryItems(categoryId);
+            });
+        return ResponseEntity.ok(new BulkResult(new ArrayList<>(deleted.keySet())));
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<?> importItems(
+            @RequestHeader(value = "Content-Type", required = false) String contentType,
+            InputStream body) {
+        
+        Optional<ItemCopyImporter.Format> format = ItemCopyImporter.Format.fromMediaType(contentType);
+        if (format.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .body("{\"error\":\"Content type must be text/csv or application/x-ndjson\"}");
+        }
+        
+        ImportResult result;
+        try {
+            result = itemBulkRepository.copyIn(body, format.get());
+        } catch (ImportFormatException e) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"" + e.getMessage() + "\"}");
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"Import rejected by the database\"}");
+        }
+        
+        // New rows can land in any category
+        itemCountCache.clear();
+        jsonCache.invalidateAllCategoryItems();
+        return ResponseEntity.ok(result);
+    }
+
+    // Checks every item first, then each distinct category once for the whole batch
+    private String validateBulk(List<Item> items, boolean create) {
+        if (items == null || items.isEmpty()) {
+            return "Items are required";
+        }
+        if (items.size() > MAX_BULK_SIZE) {
+            return "At most " + MAX_BULK_SIZE + " items per request";
+        }
+        
+        Set<Long> ids = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item == null) {
+                return "Item " + i + " is empty";
+            }
+            if (!create && item.getId() == null) {
+                return "Item " + i + ": ID is required";
+            }
+            if (!create && !ids.add(item.getId())) {
+                return "Item " + i + ": duplicate ID " + item.getId();
+            }
+            if (item.getName() == null || item.getName().trim().isEmpty()) {
+                return "Item " + i + ": Name is required";
+            }
+            if (item.getPrice() == null) {
+                return "Item " + i + ": Price is required";
+            }
+            if (item.getQuantity() == null) {
+                return "Item " + i + ": Quantity is required";
+            }
+            if (item.getCategoryId() != null) {
+                categoryIds.add(item.getCategoryId());
+            } else if (create) {
+                return "Item " + i + ": Category ID is required";
+            }
+        }
+        
+        for (Long categoryId : categoryIds) {
+            if (!categoryIdSet.contains(categoryId, categoryRepository::existsById)) {
+                return "Category not found: " + categoryId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The category id set only learns ids, so a category deleted outside the API
+     * passes the check and the write then fails on the foreign key. Forgets the
+     * categories that are gone and returns the first, or null if none is.
+     */
+    private Long forgetMissingCategory(Collection<Long> categoryIds) {
+        Long missing = null;
+        for (Long categoryId : categoryIds) {
+            if (!categoryRepository.existsById(categoryId)) {
+                categoryIdSet.remove(categoryId);
+                if (missing == null) {
+                    missing = categoryId;
+                }
+            }
+        }
+        return missing;
+    }
+
+    private <T extends Versioned> PageResponse<T> findItemsPage(
+            Long categoryId, Pageable pageable, boolean slice, Class<T> type) {
+        // An unknown category has no items; answered without a COUNT, so scanning
+        // ids leaves no entries in the count cache
+        if (categoryId != null && !categoryIdSet.contains(categoryId, categoryRepository::existsById)) {
+            List<T> none = List.of();
+            return slice
+                ? PageResponse.ofSlice(none, pageable.getPageNumber(), pageable.getPageSize(), false)
+                : new PageResponse<>(none, pageable.getPageNumber(), pageable.getPageSize(), 0);
+        }
+        
+        Slice<T> itemSlice = categoryId != null
+            ? itemRepository.findAllByCategoryId(categoryId, pageable, type)
+            : itemRepository.findAllBy(pageable, type);
+        
+        // Slice mode: no COUNT at all, clients only get hasNext
+        if (slice) {
+            return PageResponse.ofSlice(
+                itemSlice.getContent(), pageable.getPageNumber(), pageable.getPageSize(), itemSlice.hasNext());
+        }
+        
+        long totalElements = categoryId != null
+            ? itemCountCache.countByCategory(categoryId, () -> itemRepository.countByCategoryId(categoryId))
+            : itemCountCache.total(itemRepository::count);
+        
+        return new PageResponse<>(
+            itemSlice.getContent(),
+            itemSlice.getNumber(),
+            itemSlice.getSize(),
+            totalElements
+        );
     }
 }
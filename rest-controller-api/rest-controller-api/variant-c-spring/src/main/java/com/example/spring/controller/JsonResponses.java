@@ -0,0 +1,66 @@
+package com.example.spring.controller;
+
+import com.example.common.cache.CachedJson;
+import com.example.common.io.BinaryFormats;
+import com.example.common.io.ProtobufWriter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Responses for pre-serialized JSON bodies: the bytes are written as-is by the
+ * byte array converter, bypassing Jackson.
+ */
+final class JsonResponses {
+
+    // JSON first: it wins a wildcard, as with the converters
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON,
+        MediaType.valueOf(BinaryFormats.CBOR), MediaType.valueOf(BinaryFormats.SMILE),
+        MediaType.valueOf(ProtobufWriter.MEDIA_TYPE));
+
+    private JsonResponses() {
+    }
+
+    /**
+     * Whether content negotiation would pick JSON, the only format the cache
+     * holds; otherwise the request takes the negotiated path.
+     */
+    static boolean negotiatesJson(WebRequest request) {
+        String[] accept = request.getHeaderValues(HttpHeaders.ACCEPT);
+        if (accept == null || accept.length == 0) {
+            return true;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(Arrays.asList(accept)));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        // Highest quality first, header order among equals
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (MediaType format : FORMATS) {
+                if (type.isCompatibleWith(format)) {
+                    return format == MediaType.APPLICATION_JSON;
+                }
+            }
+        }
+        return false;
+    }
+
+    static ResponseEntity<byte[]> ok(CachedJson json) {
+        return ConditionalResponses.ok(json.version())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(json.body());
+    }
+}
@@ -4,9 +4,27 @@ import com.example.common.model.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Read-only transactions for queries, as in ItemRepository
+@Transactional(readOnly = true)
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Page<Category> findAll(Pageable pageable);
+
+    // Category or a DTO projection such as CategorySummary
+    <T> Page<T> findAllBy(Pageable pageable, Class<T> type);
+
+    @Query("select c.id from Category c")
+    List<Long> findAllIds();
+
+    // Revalidation only needs the version column, not the entity
+    @Query("select c.updatedAt from Category c where c.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(Long id);
 }
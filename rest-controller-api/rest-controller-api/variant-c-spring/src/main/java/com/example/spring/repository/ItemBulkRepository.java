@@ -0,0 +1,129 @@
+package com.example.spring.repository;
+
+import com.example.common.dto.ImportResult;
+import com.example.common.io.ItemCopyImporter;
+import com.example.common.model.Item;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk writes on item as plain JDBC batches.
+ *
+ * Item keeps IDENTITY generation for the single-row endpoints, which makes
+ * Hibernate insert row by row. Here ids are drawn from item_id_seq in one
+ * round trip per request and rows are sent in batches, which the driver
+ * rewrites into multi-row statements (reWriteBatchedInserts=true). Imports
+ * go through COPY instead.
+ */
+@Repository
+public class ItemBulkRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemBulkRepository.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_ITEM =
+        "INSERT INTO item (id, name, description, price, quantity, category_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_ITEM =
+        "UPDATE item SET name = ?, description = ?, price = ?, quantity = ?, category_id = ?, updated_at = ? "
+            + "WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ItemCopyImporter copyImporter = new ItemCopyImporter();
+
+    /** Inserts the items and sets their generated ids. */
+    @Transactional
+    public List<Long> insertAll(List<Item> items) {
+        List<Long> ids = jdbcTemplate.queryForList(
+            "SELECT nextval('item_id_seq') FROM generate_series(1, ?)", Long.class, items.size());
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(ids.get(i));
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, BATCH_SIZE, (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setString(2, item.getName());
+            ps.setString(3, item.getDescription());
+            ps.setBigDecimal(4, item.getPrice());
+            ps.setInt(5, item.getQuantity());
+            ps.setLong(6, item.getCategoryId());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+        return ids;
+    }
+
+    /** Updates the items by id; every item must carry its category id. */
+    @Transactional
+    public void updateAll(List<Item> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_ITEM, items, BATCH_SIZE, (ps, item) -> {
+            ps.setString(1, item.getName());
+            ps.setString(2, item.getDescription());
+            ps.setBigDecimal(3, item.getPrice());
+            ps.setInt(4, item.getQuantity());
+            ps.setLong(5, item.getCategoryId());
+            ps.setTimestamp(6, now);
+            ps.setLong(7, item.getId());
+        });
+    }
+
+    /** Category of each existing item among the ids. */
+    public Map<Long, Long> findCategoryIds(Collection<Long> ids) {
+        return queryCategoryIds("SELECT id, category_id FROM item WHERE id = ANY(?)", ids);
+    }
+
+    /** Deletes the items and returns the category each deleted one was in. */
+    @Transactional
+    public Map<Long, Long> deleteAll(Collection<Long> ids) {
+        return queryCategoryIds("DELETE FROM item WHERE id = ANY(?) RETURNING id, category_id", ids);
+    }
+
+    /** Streams CSV or NDJSON rows into item with COPY; the load is a single statement. */
+    public ImportResult copyIn(InputStream in, ItemCopyImporter.Format format) {
+        ImportResult result = jdbcTemplate.execute((ConnectionCallback<ImportResult>) connection -> {
+            try {
+                return copyImporter.importItems(connection, in, format,
+                    (rows, rowsPerSecond) -> log.info("Importing items: {} rows ({} rows/s)", rows, rowsPerSecond));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Imported {} items in {} ms ({} rows/s)",
+            result.getRows(), result.getMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private Map<Long, Long> queryCategoryIds(String sql, Collection<Long> ids) {
+        PreparedStatementSetter idArray = ps ->
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        
+        Map<Long, Long> categoryIds = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, idArray, rs -> {
+            categoryIds.put(rs.getLong(1), rs.getLong(2));
+        });
+        return categoryIds;
+    }
+}
@@ -1,13 +1,59 @@
 package com.example.spring.repository;
 
 import com.example.common.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Queries run in read-only transactions: Hibernate loads the rows without
+ * dirty-checking snapshots, never flushes, and the connection goes back to
+ * the pool when the call returns. Inherited writes ({@code save}, {@code delete})
+ * keep the read-write transactions of {@code SimpleJpaRepository}.
+ */
+@Transactional(readOnly = true)
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     Page<Item> findAll(Pageable pageable);
     Page<Item> findByCategoryId(Long categoryId, Pageable pageable);
+
+    // Keyset pagination: seek on the primary key instead of OFFSET
+    <T> List<T> findByIdGreaterThanOrderById(Long id, Limit limit, Class<T> type);
+    <T> List<T> findByCategoryIdAndIdGreaterThanOrderById(Long categoryId, Long id, Limit limit, Class<T> type);
+
+    // Slice queries fetch size + 1 rows and never run a COUNT
+    // (type: Item, or a DTO projection such as ItemSummary that selects fewer columns)
+    <T> Slice<T> findAllBy(Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByCategoryId(Long categoryId, Pageable pageable, Class<T> type);
+    long countByCategoryId(Long categoryId);
+
+    // Export cursors: rows are fetched 1000 at a time while the stream is consumed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Item> streamAllByOrderById();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Item> streamByCategoryIdOrderById(Long categoryId);
+
+    // Revalidation only needs the version column, not the entity
+    @Query("select i.updatedAt from Item i where i.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(Long id);
 }
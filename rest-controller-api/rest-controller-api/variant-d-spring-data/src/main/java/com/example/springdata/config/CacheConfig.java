@@ -0,0 +1,82 @@
+package com.example.springdata.config;
+
+import com.example.common.cache.CachedJson;
+import com.example.common.cache.CategoryIdSet;
+import com.example.common.cache.ItemCountCache;
+import com.example.common.cache.JsonResponseCache;
+import com.example.common.cache.ReadThroughCache;
+import com.example.common.cache.ReadThroughCacheMetrics;
+import com.example.common.model.Category;
+import com.example.common.model.Item;
+import com.example.springdata.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${app.cache.entities.enabled:false}")
+    private boolean entityCacheEnabled;
+
+    @Value("${app.cache.entities.max-size:10000}")
+    private int entityCacheMaxSize;
+
+    @Value("${app.cache.entities.ttl:60s}")
+    private Duration entityCacheTtl;
+
+    @Value("${app.cache.json.enabled:false}")
+    private boolean jsonCacheEnabled;
+
+    @Value("${app.cache.json.max-size:20000}")
+    private int jsonCacheMaxSize;
+
+    @Value("${app.cache.json.ttl:60s}")
+    private Duration jsonCacheTtl;
+
+    @Bean
+    public ItemCountCache itemCountCache(@Value("${app.cache.counts.ttl:60s}") Duration ttl) {
+        return new ItemCountCache(ttl);
+    }
+
+    @Bean
+    public CategoryIdSet categoryIdSet(CategoryRepository categoryRepository) {
+        return new CategoryIdSet(categoryRepository.findAllIds());
+    }
+
+    @Bean
+    public ReadThroughCache<Long, Item> itemCache() {
+        return new ReadThroughCache<>("items", entityCacheEnabled ? entityCacheMaxSize : 0, entityCacheTtl);
+    }
+
+    @Bean
+    public ReadThroughCache<Long, Category> categoryCache() {
+        return new ReadThroughCache<>("categories", entityCacheEnabled ? entityCacheMaxSize : 0, entityCacheTtl);
+    }
+
+    @Bean
+    public MeterBinder itemCacheMetrics(ReadThroughCache<Long, Item> itemCache) {
+        return new ReadThroughCacheMetrics(itemCache);
+    }
+
+    @Bean
+    public MeterBinder categoryCacheMetrics(ReadThroughCache<Long, Category> categoryCache) {
+        return new ReadThroughCacheMetrics(categoryCache);
+    }
+
+    @Bean
+    public JsonResponseCache jsonResponseCache(ObjectMapper objectMapper) {
+        ReadThroughCache<JsonResponseCache.Key, CachedJson> cache =
+            new ReadThroughCache<>("json", jsonCacheEnabled ? jsonCacheMaxSize : 0, jsonCacheTtl);
+        return new JsonResponseCache(cache, objectMapper);
+    }
+
+    @Bean
+    public MeterBinder jsonCacheMetrics(JsonResponseCache jsonResponseCache) {
+        return new ReadThroughCacheMetrics(jsonResponseCache.getCache());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.springdata.config;
+
+import com.example.common.limit.ConcurrencyLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Load shedding at the edge ({@code CONCURRENCY_LIMIT=true}): API requests over
+ * the {@link ConcurrencyLimiter} limit get an immediate 503 with
+ * {@code Retry-After} instead of queueing for a Tomcat thread and a connection.
+ * Exports and imports stream for as long as the data takes and are left out.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    @Value("${app.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${app.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${app.concurrency-limit.window:100ms}")
+    private Duration window;
+
+    @Value("${app.concurrency-limit.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${app.concurrency-limit.write-share:0.75}")
+    private double writeShare;
+
+    @Value("${app.concurrency-limit.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter() {
+        return new ConcurrencyLimiter(new ConcurrencyLimiter.Settings(
+            initialLimit, minLimit, maxLimit, window.toMillis(), rttTolerance, writeShare));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiter(), retryAfter))
+            .addPathPatterns("/items/**", "/categories/**")
+            .excludePathPatterns("/**/export", "/items/import");
+    }
+
+    static class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+        private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+        private final ConcurrencyLimiter limiter;
+        private final String retryAfterSeconds;
+
+        ConcurrencyLimitInterceptor(ConcurrencyLimiter limiter, Duration retryAfter) {
+            this.limiter = limiter;
+            this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                throws IOException {
+            boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+            ConcurrencyLimiter.Permit permit = limiter.tryAcquire(
+                read ? ConcurrencyLimiter.Priority.READ : ConcurrencyLimiter.Priority.WRITE);
+            if (permit == null) {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Server overloaded, retry later\"}");
+                return false;
+            }
+            request.setAttribute(PERMIT, permit);
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                    Exception ex) {
+            if (request.getAttribute(PERMIT) instanceof ConcurrencyLimiter.Permit permit) {
+                request.removeAttribute(PERMIT);
+                permit.release();
+            }
+        }
+    }
+}
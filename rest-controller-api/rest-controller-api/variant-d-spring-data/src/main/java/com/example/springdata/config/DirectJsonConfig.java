@@ -0,0 +1,84 @@
+package com.example.springdata.config;
+
+import com.example.common.io.DirectJsonWriter;
+import com.example.common.metrics.RequestPhases;
+import com.example.common.metrics.RequestPhases.Phase;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Item, Category and page bodies written by {@link DirectJsonWriter} instead of
+ * Jackson ({@code app.json.direct-writer.enabled}). Extra converters go ahead
+ * of the defaults, so this one is asked first; requests are still read by Jackson.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.json.direct-writer.enabled", havingValue = "true")
+public class DirectJsonConfig {
+
+    @Bean
+    public DirectJsonWriter directJsonWriter() {
+        return new DirectJsonWriter();
+    }
+
+    @Bean
+    public DirectJsonHttpMessageConverter directJsonHttpMessageConverter(DirectJsonWriter directJsonWriter,
+                                                                         ObjectMapper objectMapper) {
+        return new DirectJsonHttpMessageConverter(directJsonWriter, objectMapper);
+    }
+
+    static class DirectJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+        private final DirectJsonWriter writer;
+        private final ObjectWriter fallback;
+
+        DirectJsonHttpMessageConverter(DirectJsonWriter writer, ObjectMapper objectMapper) {
+            super(MediaType.APPLICATION_JSON);
+            this.writer = writer;
+            this.fallback = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        protected boolean supports(Class<?> clazz) {
+            return DirectJsonWriter.supports(clazz);
+        }
+
+        @Override
+        protected boolean canRead(MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+            throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+        }
+
+        @Override
+        protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+            if (!writer.canWrite(value)) {
+                fallback.writeValue(outputMessage.getBody(), value);
+                return;
+            }
+            long start = System.nanoTime();
+            try (DirectJsonWriter.Rendered json = writer.render(value)) {
+                long rendered = System.nanoTime();
+                OutputStream body = outputMessage.getBody();
+                json.writeTo(body);
+                body.flush();
+                RequestPhases.record(Phase.SERIALIZATION, rendered - start);
+                RequestPhases.record(Phase.WRITE, System.nanoTime() - rendered);
+            }
+        }
+    }
+}
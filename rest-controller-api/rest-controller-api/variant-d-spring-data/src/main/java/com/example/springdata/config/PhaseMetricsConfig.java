@@ -0,0 +1,177 @@
+package com.example.springdata.config;
+
+import com.example.common.metrics.RequestPhases;
+import com.example.common.metrics.RequestPhases.Phase;
+import com.example.common.metrics.TimedOutputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.SessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-phase request timers ({@link RequestPhases}, on unless
+ * {@code app.metrics.phases.enabled=false}). A servlet filter brackets each
+ * request, Spring Data reports repository calls, a Hibernate session listener
+ * the connection wait, and the JSON and byte[] converters time rendering and
+ * write-out separately.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.metrics.phases.enabled", havingValue = "true", matchIfMissing = true)
+public class PhaseMetricsConfig {
+
+    @Bean
+    public RequestPhases requestPhases() {
+        return new RequestPhases();
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestPhaseFilter> requestPhaseFilter(RequestPhases requestPhases) {
+        FilterRegistrationBean<RequestPhaseFilter> registration =
+            new FilterRegistrationBean<>(new RequestPhaseFilter(requestPhases));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryPhaseListener() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(invocation ->
+                        RequestPhases.record(Phase.REPOSITORY,
+                            invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName(),
+                            invocation.getDuration(TimeUnit.NANOSECONDS))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // With the replica, Hibernate only gets the lazy proxy; the routing data source times the wait
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "false", matchIfMissing = true)
+    public HibernatePropertiesCustomizer connectionPhaseListener() {
+        return properties -> properties.put(
+            AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, ConnectionPhaseListener.class.getName());
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException {
+                if (!RequestPhases.active()) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                // Rendered straight into the response; the time inside its writes is write-out
+                long start = System.nanoTime();
+                TimedOutputStream body = new TimedOutputStream(outputMessage.getBody());
+                super.writeInternal(object, type, new TimedOutputMessage(outputMessage.getHeaders(), body));
+                body.flush();
+                RequestPhases.record(Phase.SERIALIZATION, System.nanoTime() - start - body.nanos());
+                RequestPhases.record(Phase.WRITE, body.nanos());
+            }
+        };
+    }
+
+    // Pre-serialized bodies (JSON response cache) only have a write-out
+    @Bean
+    public ByteArrayHttpMessageConverter byteArrayHttpMessageConverter() {
+        return new ByteArrayHttpMessageConverter() {
+            @Override
+            protected void writeInternal(byte[] bytes, HttpOutputMessage outputMessage) throws IOException {
+                long start = System.nanoTime();
+                super.writeInternal(bytes, outputMessage);
+                outputMessage.getBody().flush();
+                RequestPhases.record(Phase.WRITE, System.nanoTime() - start);
+            }
+        };
+    }
+
+    static class RequestPhaseFilter extends OncePerRequestFilter {
+
+        private final RequestPhases requestPhases;
+
+        RequestPhaseFilter(RequestPhases requestPhases) {
+            this.requestPhases = requestPhases;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return request.getRequestURI().startsWith("/actuator");
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            RequestPhases.Recording recording = requestPhases.start();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (request.isAsyncStarted()) {
+                    // Exports stream from another thread; their time is not a request phase
+                    requestPhases.discard();
+                } else {
+                    if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String route) {
+                        recording.route(route);
+                    }
+                    requestPhases.finish(recording);
+                }
+            }
+        }
+    }
+
+    /** Hibernate creates one per session, by class name. */
+    public static class ConnectionPhaseListener implements SessionEventListener {
+
+        private long acquisitionStart;
+
+        @Override
+        public void jdbcConnectionAcquisitionStart() {
+            acquisitionStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcConnectionAcquisitionEnd() {
+            RequestPhases.record(Phase.CONNECTION, System.nanoTime() - acquisitionStart);
+        }
+    }
+
+    private record TimedOutputMessage(HttpHeaders headers, OutputStream body) implements HttpOutputMessage {
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
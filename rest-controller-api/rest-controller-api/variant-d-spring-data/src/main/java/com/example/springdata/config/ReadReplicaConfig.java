@@ -0,0 +1,136 @@
+package com.example.springdata.config;
+
+import com.example.common.db.ReplicaLagMonitor;
+import com.example.common.metrics.RequestPhases;
+import com.example.common.metrics.RequestPhases.Phase;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Primary/replica routing ({@code READ_REPLICA=true}). Replaces the auto-configured
+ * pool with two Hikari pools and a routing {@link DataSource} in front of them:
+ * read-only transactions (all repository queries) use the replica while
+ * {@link ReplicaLagMonitor} reports it in sync, everything else the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password) {
+        return properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(
+            HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource,
+            @Value("${app.datasource.replica.max-lag:1s}") Duration maxLag,
+            @Value("${app.datasource.replica.check-interval:1s}") Duration checkInterval) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxLag, checkInterval);
+        monitor.start();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor) {
+        ReplicaRoutingDataSource routing =
+            new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor);
+        routing.afterPropertiesSet();
+        // The transaction manager asks for a connection before it marks the transaction
+        // read-only; the proxy only routes once the first statement runs
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Health follows the primary alone: reads fall back to it while the replica is down
+    @Bean
+    public DataSourceHealthIndicator dbHealthIndicator(HikariDataSource primaryDataSource) {
+        return new DataSourceHealthIndicator(primaryDataSource);
+    }
+
+    static class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+        private enum Route { PRIMARY, REPLICA }
+
+        private final DataSource primary;
+        private final DataSource replica;
+        private final ReplicaLagMonitor monitor;
+
+        ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor) {
+            this.primary = primary;
+            this.replica = replica;
+            this.monitor = monitor;
+            setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+            setDefaultTargetDataSource(primary);
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && monitor.useReplica()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+        }
+
+        // Taken on the first statement, mostly inside a repository call: the
+        // connection phase of the request timers when they are on
+        @Override
+        public Connection getConnection() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return acquire();
+            } finally {
+                RequestPhases.record(Phase.CONNECTION, System.nanoTime() - start);
+            }
+        }
+
+        private Connection acquire() throws SQLException {
+            DataSource target = determineTargetDataSource();
+            if (target != replica) {
+                return target.getConnection();
+            }
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                // Don't fail the read; the next lag check decides when to return to the replica
+                monitor.connectionFailed(e);
+                return primary.getConnection();
+            }
+        }
+    }
+}
@@ -1,17 +1,37 @@
 package com.example.springdata.controller;
 
+import com.example.common.cache.CachedJson;
+import com.example.common.cache.CategoryIdSet;
+import com.example.common.cache.ItemCountCache;
+import com.example.common.cache.JsonResponseCache;
+import com.example.common.cache.ReadThroughCache;
+import com.example.common.cache.ResourceVersion;
+import com.example.common.dto.PageCursor;
 import com.example.common.dto.PageResponse;
+import com.example.common.dto.Projection;
+import com.example.common.io.NdjsonWriter;
 import com.example.common.model.Category;
 import com.example.common.model.Item;
+import com.example.common.model.Versioned;
 import com.example.springdata.repository.CategoryRepository;
+import com.example.springdata.repository.ItemExporter;
 import com.example.springdata.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/categories")
@@ -25,54 +45,133 @@ public class CategoryController {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemExporter itemExporter;
+
+    @Autowired
+    private ItemCountCache itemCountCache;
+
+    @Autowired
+    private CategoryIdSet categoryIdSet;
+
+    @Autowired
+    private ReadThroughCache<Long, Item> itemCache;
+
+    @Autowired
+    private JsonResponseCache jsonCache;
+
+    @Autowired
+    private ReadThroughCache<Long, Category> categoryCache;
+
     @GetMapping
-    public ResponseEntity<PageResponse<Category>> getCategories(
+    public ResponseEntity<?> getCategories(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String fields) {
+        
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"fields must be full or summary\"}");
+        }
         
         size = Math.min(size, MAX_SIZE);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Category> categoryPage = categoryRepository.findAll(pageable);
-        
-        PageResponse<Category> response = new PageResponse<>(
-            categoryPage.getContent(),
-            categoryPage.getNumber(),
-            categoryPage.getSize(),
-            categoryPage.getTotalElements()
-        );
+        PageResponse<? extends Versioned> response = findCategoriesPage(pageable, projection.categoryType());
         
-        return ResponseEntity.ok(response);
+        return ConditionalResponses.ok(ResourceVersion.of(response)).body(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        return categoryRepository.findById(id)
-            .map(ResponseEntity::ok)
+    public ResponseEntity<?> getCategoryById(@PathVariable Long id, WebRequest request) {
+        if (jsonCache.isEnabled() && JsonResponses.negotiatesJson(request)) {
+            return jsonCache.find(JsonResponseCache.Key.category(id), () -> categoryCache.get(id, categoryRepository::findById))
+                .map(JsonResponses::ok)
+                .orElse(ResponseEntity.notFound().build());
+        }
+        
+        // Revalidate on updated_at alone: a current client copy costs no entity load
+        if (!categoryCache.isEnabled() && ConditionalResponses.isConditional(request)) {
+            Optional<LocalDateTime> updatedAt = categoryRepository.findUpdatedAtById(id);
+            if (updatedAt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (ConditionalResponses.notModified(request, ResourceVersion.of(updatedAt.get()))) {
+                return null;
+            }
+        }
+        
+        return categoryCache.get(id, categoryRepository::findById)
+            .map(category -> ConditionalResponses.ok(ResourceVersion.of(category)).body(category))
             .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{id}/items")
-    public ResponseEntity<PageResponse<Item>> getItemsByCategory(
+    public ResponseEntity<?> getItemsByCategory(
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
         
-        if (!categoryRepository.existsById(id)) {
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body("{\"error\":\"fields must be full or summary\"}");
+        }
+        
+        if (!categoryIdSet.contains(id, categoryRepository::existsById)) {
             return ResponseEntity.notFound().build();
         }
         
         size = Math.min(size, MAX_SIZE);
+        
+        // Keyset mode: seek past the cursor so deep pages cost the same as the first one
+        if (after != null) {
+            long afterId;
+            try {
+                afterId = PageCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                    .body("{\"error\":\"Invalid cursor\"}");
+            }
+            
+            List<? extends Versioned> rows = itemRepository.findByCategoryIdAndIdGreaterThanOrderById(
+                id, afterId, Limit.of(size + 1), projection.itemType());
+            
+            PageResponse<? extends Versioned> response = PageResponse.ofCursor(rows, size, afterId == 0, Versioned::getId);
+            return ConditionalResponses.ok(ResourceVersion.of(response)).body(response);
+        }
+        
         Pageable pageable = PageRequest.of(page, size);
-        Page<Item> itemPage = itemRepository.findByCategoryId(id, pageable);
         
-        PageResponse<Item> response = new PageResponse<>(
-            itemPage.getContent(),
-            itemPage.getNumber(),
-            itemPage.getSize(),
-            itemPage.getTotalElements()
-        );
+        if (jsonCache.isEnabled() && projection == Projection.FULL && JsonResponses.negotiatesJson(request)) {
+            CachedJson json = jsonCache.get(
+                JsonResponseCache.Key.categoryItems(id, page, size, slice),
+                () -> findItemsPage(id, pageable, slice, Item.class));
+            return JsonResponses.ok(json);
+        }
         
-        return ResponseEntity.ok(response);
+        PageResponse<? extends Versioned> response = findItemsPage(id, pageable, slice, projection.itemType());
+        return ConditionalResponses.ok(ResourceVersion.of(response)).body(response);
+    }
+
+    @GetMapping("/{id}/items/export")
+    public ResponseEntity<StreamingResponseBody> exportItemsByCategory(@PathVariable Long id) {
+        if (!categoryIdSet.contains(id, categoryRepository::existsById)) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        StreamingResponseBody body = out -> itemExporter.export(id, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))
+            .body(body);
     }
 
     @PostMapping
@@ -83,6 +182,7 @@ public class CategoryController {
         }
         
         Category saved = categoryRepository.save(category);
+        categoryIdSet.add(saved.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
@@ -96,6 +196,8 @@ public class CategoryController {
                 existing.setName(category.getName());
                 existing.setDescription(category.getDescription());
                 Category updated = categoryRepository.save(existing);
+                categoryCache.invalidate(id);
+                jsonCache.invalidateCategory(id);
                 return ResponseEntity.ok(updated);
             })
             .orElse(ResponseEntity.notFound().build());
@@ -108,6 +210,45 @@ public class CategoryController {
         }
         
         categoryRepository.deleteById(id);
+        categoryIdSet.remove(id);
+        itemCountCache.categoryRemoved(id);
+        categoryCache.invalidate(id);
+        jsonCache.invalidateCategory(id);
+        // Items of the category are removed by ON DELETE CASCADE
+        itemCache.invalidateAll();
+        jsonCache.invalidateCategoryItems(id);
+        jsonCache.invalidateAllItems();
         return ResponseEntity.noContent().build();
     }
+
+    private <T extends Versioned> PageResponse<T> findCategoriesPage(Pageable pageable, Class<T> type) {
+        Page<T> categoryPage = categoryRepository.findAllBy(pageable, type);
+        return new PageResponse<>(
+            categoryPage.getContent(),
+            categoryPage.getNumber(),
+            categoryPage.getSize(),
+            categoryPage.getTotalElements()
+        );
+    }
+
+    private <T extends Versioned> PageResponse<T> findItemsPage(
+            Long categoryId, Pageable pageable, boolean slice, Class<T> type) {
+        Slice<T> itemSlice = itemRepository.findAllByCategoryId(categoryId, pageable, type);
+        
+        // Slice mode: no COUNT at all, clients only get hasNext
+        if (slice) {
+            return PageResponse.ofSlice(
+                itemSlice.getContent(), pageable.getPageNumber(), pageable.getPageSize(), itemSlice.hasNext());
+        }
+        
+        long totalElements = itemCountCache.countByCategory(
+            categoryId, () -> itemRepository.countByCategoryId(categoryId));
+        
+        return new PageResponse<>(
+            itemSlice.getContent(),
+            itemSlice.getNumber(),
+            itemSlice.getSize(),
+            totalElements
+        );
+    }
 }
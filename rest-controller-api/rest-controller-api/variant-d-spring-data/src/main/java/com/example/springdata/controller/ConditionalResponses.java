@@ -0,0 +1,43 @@
+package com.example.springdata.controller;
+
+import com.example.common.cache.ResourceVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Weak ETag / Last-Modified handling. Responses built with {@link #ok} are
+ * turned into a 304 by Spring before the body is serialized when the client's
+ * validators still match.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    /** Whether the client sent validators, i.e. the request may end in a 304. */
+    static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Checks the validators before anything is loaded. When this returns true
+     * the 304 is already set and the handler must return null.
+     */
+    static boolean notModified(WebRequest request, ResourceVersion version) {
+        return request.checkNotModified(etag(version), version.lastModified());
+    }
+
+    static ResponseEntity.BodyBuilder ok(ResourceVersion version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag(version));
+        if (version.lastModified() >= 0) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+
+    private static String etag(ResourceVersion version) {
+        return "W/\"" + version.tag() + "\"";
+    }
+}
@@ -4,9 +4,17 @@ import com.example.common.model.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Read-only transactions for queries, as in ItemRepository
+@Transactional(readOnly = true)
 @RepositoryRestResource(path = "categories", collectionResourceRel = "categories")
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     
@@ -14,11 +22,26 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @RestResource(exported = true)
     Page<Category> findAll(Pageable pageable);
     
+    // Category or a DTO projection such as CategorySummary
+    @RestResource(exported = false)
+    <T> Page<T> findAllBy(Pageable pageable, Class<T> type);
+    
+    @RestResource(exported = false)
+    @Query("select c.id from Category c")
+    List<Long> findAllIds();
+    
+    // Revalidation only needs the version column, not the entity
+    @RestResource(exported = false)
+    @Query("select c.updatedAt from Category c where c.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(Long id);
+    
     @Override
+    @Transactional
     @RestResource(exported = true)
     <S extends Category> S save(S entity);
     
     @Override
+    @Transactional
     @RestResource(exported = true)
     void deleteById(Long id);
 }
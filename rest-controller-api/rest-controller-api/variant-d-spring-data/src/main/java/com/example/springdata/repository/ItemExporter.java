@@ -0,0 +1,55 @@
+package com.example.springdata.repository;
+
+import com.example.common.io.NdjsonWriter;
+import com.example.common.model.Item;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Streams items as NDJSON through a server-side cursor. The query runs in a
+ * read-only transaction (PostgreSQL only honours the fetch size with
+ * autocommit off) and each row is detached once written, so memory stays flat
+ * whatever the size of the table.
+ */
+@Component
+public class ItemExporter {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Writes all items, or those of one category, ordered by id. */
+    public long export(Long categoryId, OutputStream out) {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        
+        return transaction.execute(status -> {
+            try (Stream<Item> rows = categoryId != null
+                    ? itemRepository.streamByCategoryIdOrderById(categoryId)
+                    : itemRepository.streamAllByOrderById()) {
+                return writer.write(rows, out, entityManager::detach);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -1,13 +1,32 @@
 package com.example.springdata.repository;
 
 import com.example.common.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Queries run in read-only transactions: Hibernate loads the rows without
+ * dirty-checking snapshots, never flushes, and the connection goes back to
+ * the pool when the call returns. The redeclared writes below opt back into
+ * read-write transactions.
+ */
+@Transactional(readOnly = true)
 @RepositoryRestResource(path = "items", collectionResourceRel = "items")
 public interface ItemRepository extends JpaRepository<Item, Long> {
     
@@ -18,11 +37,51 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @RestResource(path = "search/by-category", rel = "by-category")
     Page<Item> findByCategoryId(@RequestParam("categoryId") Long categoryId, Pageable pageable);
     
+    // Keyset pagination: seek on the primary key instead of OFFSET
+    @RestResource(exported = false)
+    <T> List<T> findByIdGreaterThanOrderById(Long id, Limit limit, Class<T> type);
+    
+    @RestResource(exported = false)
+    <T> List<T> findByCategoryIdAndIdGreaterThanOrderById(Long categoryId, Long id, Limit limit, Class<T> type);
+    
+    // Slice queries fetch size + 1 rows and never run a COUNT
+    // (type: Item, or a DTO projection such as ItemSummary that selects fewer columns)
+    @RestResource(exported = false)
+    <T> Slice<T> findAllBy(Pageable pageable, Class<T> type);
+    
+    @RestResource(exported = false)
+    <T> Slice<T> findAllByCategoryId(Long categoryId, Pageable pageable, Class<T> type);
+    
+    @RestResource(exported = false)
+    long countByCategoryId(Long categoryId);
+    
+    // Export cursors: rows are fetched 1000 at a time while the stream is consumed
+    @RestResource(exported = false)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Item> streamAllByOrderById();
+    
+    @RestResource(exported = false)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Item> streamByCategoryIdOrderById(Long categoryId);
+    
+    // Revalidation only needs the version column, not the entity
+    @RestResource(exported = false)
+    @Query("select i.updatedAt from Item i where i.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(Long id);
+    
     @Override
+    @Transactional
     @RestResource(exported = true)
     <S extends Item> S save(S entity);
     
     @Override
+    @Transactional
     @RestResource(exported = true)
     void deleteById(Long id);
 }
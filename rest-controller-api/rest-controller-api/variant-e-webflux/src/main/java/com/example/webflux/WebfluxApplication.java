@@ -0,0 +1,20 @@
+package com.example.webflux;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Variant E: the same Item/Category API on WebFlux (Reactor Netty) and R2DBC.
+ * Nothing blocks on the event loop; rows are mapped straight onto the common
+ * model classes, which are not JPA-managed here.
+ */
+@SpringBootApplication(scanBasePackages = {
+        "com.example.webflux",
+        "com.example.common"
+})
+public class WebfluxApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(WebfluxApplication.class, args);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.webflux.config;
+
+import com.example.common.cache.CategoryIdSet;
+import com.example.common.cache.ItemCountCache;
+import com.example.webflux.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public ItemCountCache itemCountCache(@Value("${app.cache.counts.ttl:60s}") Duration ttl) {
+        return new ItemCountCache(ttl);
+    }
+
+    /** Loaded once at startup, before the server accepts requests, so blocking here is fine. */
+    @Bean
+    public CategoryIdSet categoryIdSet(CategoryRepository categoryRepository) {
+        return new CategoryIdSet(categoryRepository.findAllIds().collectList().block());
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.webflux.controller;
+
+import com.example.common.cache.CategoryIdSet;
+import com.example.common.cache.ItemCountCache;
+import com.example.common.cache.ResourceVersion;
+import com.example.common.dto.PageCursor;
+import com.example.common.dto.PageResponse;
+import com.example.common.dto.Projection;
+import com.example.common.io.NdjsonWriter;
+import com.example.common.model.Category;
+import com.example.common.model.Versioned;
+import com.example.webflux.repository.CategoryRepository;
+import com.example.webflux.repository.ItemExporter;
+import com.example.webflux.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.OptionalLong;
+
+@RestController
+@RequestMapping("/categories")
+public class CategoryController {
+
+    private static final int MAX_SIZE = 100;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemExporter itemExporter;
+
+    @Autowired
+    private ItemCountCache itemCountCache;
+
+    @Autowired
+    private CategoryIdSet categoryIdSet;
+
+    @GetMapping
+    public Mono<ResponseEntity<?>> getCategories(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String fields) {
+
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"fields must be full or summary\"}"));
+        }
+
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_SIZE));
+
+        return Mono.zip(
+                categoryRepository.findAll(pageable.getOffset(), pageable.getPageSize(), projection.categoryType())
+                    .collectList(),
+                categoryRepository.count())
+            .map(pageAndTotal -> {
+                PageResponse<? extends Versioned> response = new PageResponse<>(
+                    pageAndTotal.getT1(),
+                    pageable.getPageNumber(),
+                    pageable.getPageSize(),
+                    pageAndTotal.getT2()
+                );
+                return ConditionalResponses.ok(ResourceVersion.of(response)).body(response);
+            });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Category>> getCategoryById(@PathVariable Long id) {
+        return categoryRepository.findById(id)
+            .map(category -> ConditionalResponses.ok(ResourceVersion.of(category)).body(category))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/items")
+    public Mono<ResponseEntity<?>> getItemsByCategory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String fields) {
+
+        int pageSize = Math.min(size, MAX_SIZE);
+
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"fields must be full or summary\"}"));
+        }
+
+        long afterId;
+        try {
+            afterId = PageCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"Invalid cursor\"}"));
+        }
+
+        // Verify category exists
+        return categoryExists(id).flatMap(exists -> {
+            if (!exists) {
+                return Mono.just(ResponseEntity.notFound().build());
+            }
+
+            // Keyset mode: seek past the cursor so deep pages cost the same as the first one
+            if (after != null) {
+                return itemRepository.findByCategoryIdAndIdGreaterThan(id, afterId, pageSize + 1, projection.itemType())
+                    .collectList()
+                    .map(rows -> {
+                        PageResponse<? extends Versioned> response =
+                            PageResponse.ofCursor(rows, pageSize, afterId == 0, Versioned::getId);
+                        return ConditionalResponses.ok(ResourceVersion.of(response)).body(response);
+                    });
+            }
+
+            return findItemsPage(id, PageRequest.of(page, pageSize), slice, projection.itemType())
+                .map(response -> ConditionalResponses.ok(ResourceVersion.of(response)).body(response));
+        });
+    }
+
+    @GetMapping("/{id}/items/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportItemsByCategory(@PathVariable Long id) {
+        return categoryExists(id).map(exists -> exists
+            ? ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))
+                .body(itemExporter.export(id))
+            : ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> createCategory(@RequestBody Category category) {
+        if (category.getName() == null || category.getName().trim().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"Name is required\"}"));
+        }
+
+        return categoryRepository.insert(category).map(saved -> {
+            categoryIdSet.add(saved.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Category>> updateCategory(
+            @PathVariable Long id,
+            @RequestBody Category category) {
+
+        return categoryRepository.update(id, category)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCategory(@PathVariable Long id) {
+        return categoryRepository.deleteById(id).map(deleted -> {
+            if (!deleted) {
+                return ResponseEntity.notFound().<Void>build();
+            }
+            categoryIdSet.remove(id);
+            // Items of the category are removed by ON DELETE CASCADE
+            itemCountCache.categoryRemoved(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
+    }
+
+    private Mono<Boolean> categoryExists(Long categoryId) {
+        if (categoryIdSet.containsKnown(categoryId)) {
+            return Mono.just(true);
+        }
+        long stamp = categoryIdSet.stamp();
+        return categoryRepository.existsById(categoryId)
+            .doOnNext(exists -> {
+                if (exists) {
+                    categoryIdSet.addChecked(categoryId, stamp);
+                }
+            });
+    }
+
+    private <T extends Versioned> Mono<PageResponse<T>> findItemsPage(
+            Long categoryId, Pageable pageable, boolean slice, Class<T> type) {
+        int size = pageable.getPageSize();
+
+        // Slice mode: one extra row tells whether there is a next page, no COUNT at all
+        if (slice) {
+            return itemRepository.findAllByCategoryId(categoryId, pageable.getOffset(), size + 1, type)
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > size;
+                    return PageResponse.ofSlice(
+                        hasNext ? rows.subList(0, size) : rows, pageable.getPageNumber(), size, hasNext);
+                });
+        }
+
+        return Mono.zip(
+                itemRepository.findAllByCategoryId(categoryId, pageable.getOffset(), size, type).collectList(),
+                countItems(categoryId))
+            .map(pageAndTotal -> new PageResponse<>(
+                pageAndTotal.getT1(),
+                pageable.getPageNumber(),
+                size,
+                pageAndTotal.getT2()
+            ));
+    }
+
+    private Mono<Long> countItems(Long categoryId) {
+        OptionalLong cached = itemCountCache.peek(categoryId);
+        if (cached.isPresent()) {
+            return Mono.just(cached.getAsLong());
+        }
+        return itemRepository.countByCategoryId(categoryId)
+            .doOnNext(total -> itemCountCache.loaded(categoryId, total));
+    }
+}
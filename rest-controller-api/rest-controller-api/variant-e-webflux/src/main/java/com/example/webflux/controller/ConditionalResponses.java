@@ -0,0 +1,27 @@
+package com.example.webflux.controller;
+
+import com.example.common.cache.ResourceVersion;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Weak ETag / Last-Modified handling. For GET and HEAD, WebFlux compares the
+ * validators of a response built with {@link #ok} with the request's and sends
+ * a 304 without encoding the body when they still match.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static ResponseEntity.BodyBuilder ok(ResourceVersion version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag(version));
+        if (version.lastModified() >= 0) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+
+    private static String etag(ResourceVersion version) {
+        return "W/\"" + version.tag() + "\"";
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.webflux.controller;
+
+import com.example.common.cache.CategoryIdSet;
+import com.example.common.cache.ItemCountCache;
+import com.example.common.cache.ResourceVersion;
+import com.example.common.dto.PageCursor;
+import com.example.common.dto.PageResponse;
+import com.example.common.dto.Projection;
+import com.example.common.io.NdjsonWriter;
+import com.example.common.model.Item;
+import com.example.common.model.Versioned;
+import com.example.webflux.repository.CategoryRepository;
+import com.example.webflux.repository.ItemExporter;
+import com.example.webflux.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+@RestController
+@RequestMapping("/items")
+public class ItemController {
+
+    private static final int MAX_SIZE = 100;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemExporter itemExporter;
+
+    @Autowired
+    private ItemCountCache itemCountCache;
+
+    @Autowired
+    private CategoryIdSet categoryIdSet;
+
+    @GetMapping
+    public Mono<ResponseEntity<?>> getItems(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String fields) {
+
+        int pageSize = Math.min(size, MAX_SIZE);
+
+        Projection projection;
+        try {
+            projection = Projection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"fields must be full or summary\"}"));
+        }
+
+        // Keyset mode: seek past the cursor so deep pages cost the same as the first one
+        if (after != null) {
+            long afterId;
+            try {
+                afterId = PageCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Mono.just(ResponseEntity.badRequest()
+                    .body("{\"error\":\"Invalid cursor\"}"));
+            }
+
+            Flux<? extends Versioned> rows = categoryId != null
+                ? itemRepository.findByCategoryIdAndIdGreaterThan(categoryId, afterId, pageSize + 1, projection.itemType())
+                : itemRepository.findByIdGreaterThan(afterId, pageSize + 1, projection.itemType());
+
+            return rows.collectList().map(list -> {
+                PageResponse<? extends Versioned> response =
+                    PageResponse.ofCursor(list, pageSize, afterId == 0, Versioned::getId);
+                return ConditionalResponses.ok(ResourceVersion.of(response)).body(response);
+            });
+        }
+
+        return findItemsPage(categoryId, PageRequest.of(page, pageSize), slice, projection.itemType())
+            .map(response -> ConditionalResponses.ok(ResourceVersion.of(response)).body(response));
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportItems(@RequestParam(required = false) Long categoryId) {
+        Mono<Boolean> exists = categoryId != null ? categoryExists(categoryId) : Mono.just(true);
+
+        // Encoded while the cursor is read, with backpressure from the socket
+        return exists.map(found -> found
+            ? ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))
+                .body(itemExporter.export(categoryId))
+            : ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Item>> getItemById(@PathVariable Long id) {
+        return itemRepository.findById(id)
+            .map(item -> ConditionalResponses.ok(ResourceVersion.of(item)).body(item))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> createItem(@RequestBody Item item) {
+        // Validate required fields
+        if (item.getName() == null || item.getName().trim().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"Name is required\"}"));
+        }
+        if (item.getPrice() == null) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"Price is required\"}"));
+        }
+        if (item.getCategoryId() == null) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"Category ID is required\"}"));
+        }
+
+        // Verify category exists
+        return categoryExists(item.getCategoryId()).flatMap(exists -> {
+            if (!exists) {
+                return Mono.just(ResponseEntity.badRequest()
+                    .body("{\"error\":\"Category not found\"}"));
+            }
+            return itemRepository.insert(item).<ResponseEntity<?>>map(saved -> {
+                itemCountCache.itemAdded(saved.getCategoryId());
+                return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+            }).onErrorResume(DataIntegrityViolationException.class, e -> categoryGone(item.getCategoryId(), e));
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateItem(
+            @PathVariable Long id,
+            @RequestBody Item item) {
+
+        Mono<Boolean> categoryValid = item.getCategoryId() != null
+            ? categoryExists(item.getCategoryId())
+            : Mono.just(true);
+
+        return categoryValid.flatMap(valid -> {
+            if (!valid) {
+                // A missing item is a 404 whatever the category, as in the blocking variants
+                return itemRepository.findById(id)
+                    .<ResponseEntity<?>>map(existing -> ResponseEntity.badRequest()
+                        .body("{\"error\":\"Category not found\"}"))
+                    .defaultIfEmpty(ResponseEntity.notFound().build());
+            }
+            return itemRepository.update(id, item)
+                .<ResponseEntity<?>>map(updated -> {
+                    Item saved = updated.item();
+                    if (!updated.previousCategoryId().equals(saved.getCategoryId())) {
+                        itemCountCache.itemMoved(updated.previousCategoryId(), saved.getCategoryId());
+                    }
+                    return ResponseEntity.ok(saved);
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(DataIntegrityViolationException.class, e -> item.getCategoryId() != null
+                    ? categoryGone(item.getCategoryId(), e)
+                    : Mono.error(e));
+        });
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteItem(@PathVariable Long id) {
+        return itemRepository.deleteById(id)
+            .map(categoryId -> {
+                itemCountCache.itemRemoved(categoryId);
+                return ResponseEntity.noContent().<Void>build();
+            })
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private Mono<Boolean> categoryExists(Long categoryId) {
+        if (categoryIdSet.containsKnown(categoryId)) {
+            return Mono.just(true);
+        }
+        long stamp = categoryIdSet.stamp();
+        return categoryRepository.existsById(categoryId)
+            .doOnNext(exists -> {
+                if (exists) {
+                    categoryIdSet.addChecked(categoryId, stamp);
+                }
+            });
+    }
+
+    /**
+     * The category id set only learns ids, so a category deleted outside the API
+     * passes the check and the write then fails on the foreign key.
+     */
+    private Mono<ResponseEntity<?>> categoryGone(Long categoryId, DataIntegrityViolationException e) {
+        return categoryRepository.existsById(categoryId).flatMap(exists -> {
+            if (exists) {
+                return Mono.error(e);
+            }
+            categoryIdSet.remove(categoryId);
+            return Mono.just(ResponseEntity.badRequest()
+                .body("{\"error\":\"Category not found\"}"));
+        });
+    }
+
+    private <T extends Versioned> Mono<PageResponse<T>> findItemsPage(
+            Long categoryId, Pageable pageable, boolean slice, Class<T> type) {
+        if (categoryId == null) {
+            return readItemsPage(null, pageable, slice, type);
+        }
+        // An unknown category has no items; answered without a COUNT, so scanning
+        // ids leaves no entries in the count cache
+        return categoryExists(categoryId).flatMap(exists -> {
+            if (exists) {
+                return readItemsPage(categoryId, pageable, slice, type);
+            }
+            List<T> none = List.of();
+            return Mono.just(slice
+                ? PageResponse.ofSlice(none, pageable.getPageNumber(), pageable.getPageSize(), false)
+                : new PageResponse<>(none, pageable.getPageNumber(), pageable.getPageSize(), 0));
+        });
+    }
+
+    private <T extends Versioned> Mono<PageResponse<T>> readItemsPage(
+            Long categoryId, Pageable pageable, boolean slice, Class<T> type) {
+        int size = pageable.getPageSize();
+
+        // Slice mode: one extra row tells whether there is a next page, no COUNT at all
+        if (slice) {
+            Flux<T> rows = categoryId != null
+                ? itemRepository.findAllByCategoryId(categoryId, pageable.getOffset(), size + 1, type)
+                : itemRepository.findAll(pageable.getOffset(), size + 1, type);
+            return rows.collectList().map(list -> {
+                boolean hasNext = list.size() > size;
+                return PageResponse.ofSlice(
+                    hasNext ? list.subList(0, size) : list, pageable.getPageNumber(), size, hasNext);
+            });
+        }
+
+        Flux<T> rows = categoryId != null
+            ? itemRepository.findAllByCategoryId(categoryId, pageable.getOffset(), size, type)
+            : itemRepository.findAll(pageable.getOffset(), size, type);
+
+        // Page and COUNT (when not cached) run concurrently, on two connections
+        return Mono.zip(rows.collectList(), countItems(categoryId))
+            .map(pageAndTotal -> new PageResponse<>(
+                pageAndTotal.getT1(),
+                pageable.getPageNumber(),
+                size,
+                pageAndTotal.getT2()
+            ));
+    }
+
+    private Mono<Long> countItems(Long categoryId) {
+        OptionalLong cached = itemCountCache.peek(categoryId);
+        if (cached.isPresent()) {
+            return Mono.just(cached.getAsLong());
+        }
+        Mono<Long> count = categoryId != null
+            ? itemRepository.countByCategoryId(categoryId)
+            : itemRepository.count();
+        return count.doOnNext(total -> itemCountCache.loaded(categoryId, total));
+    }
+}
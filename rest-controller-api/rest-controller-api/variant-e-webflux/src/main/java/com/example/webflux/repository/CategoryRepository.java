@@ -0,0 +1,115 @@
+package com.example.webflux.repository;
+
+import com.example.common.dto.CategorySummary;
+import com.example.common.model.Category;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Category queries on R2DBC. Same SQL as the JPA variants run, one statement
+ * per operation; created_at/updated_at come from the column defaults and the
+ * update trigger and are read back with RETURNING.
+ */
+@Repository
+public class CategoryRepository {
+
+    private static final String COLUMNS = "id, name, description, created_at, updated_at";
+    private static final String SUMMARY_COLUMNS = "id, name, updated_at";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /** Rows as {@link Category}, or {@link CategorySummary} without the description. */
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> findAll(long offset, int limit, Class<T> type) {
+        boolean summary = type == CategorySummary.class;
+        if (!summary && type != Category.class) {
+            throw new IllegalArgumentException("Unsupported projection: " + type.getName());
+        }
+        return databaseClient.sql("SELECT " + (summary ? SUMMARY_COLUMNS : COLUMNS)
+                + " FROM category LIMIT :limit OFFSET :offset")
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(row -> (T) (summary ? toSummary(row) : toCategory(row)))
+            .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM category")
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    public Mono<Category> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM category WHERE id = :id")
+            .bind("id", id)
+            .map(CategoryRepository::toCategory)
+            .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM category WHERE id = :id")
+            .bind("id", id)
+            .map(row -> Boolean.TRUE)
+            .one()
+            .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Flux<Long> findAllIds() {
+        return databaseClient.sql("SELECT id FROM category")
+            .map(row -> row.get(0, Long.class))
+            .all();
+    }
+
+    public Mono<Category> insert(Category category) {
+        return databaseClient.sql("INSERT INTO category (name, description) VALUES (:name, :description)"
+                + " RETURNING " + COLUMNS)
+            .bind("name", Parameters.in(R2dbcType.VARCHAR, category.getName()))
+            .bind("description", Parameters.in(R2dbcType.VARCHAR, category.getDescription()))
+            .map(CategoryRepository::toCategory)
+            .one();
+    }
+
+    /** Empty if there is no category with this id. */
+    public Mono<Category> update(Long id, Category category) {
+        return databaseClient.sql("UPDATE category SET name = :name, description = :description"
+                + " WHERE id = :id RETURNING " + COLUMNS)
+            .bind("id", id)
+            .bind("name", Parameters.in(R2dbcType.VARCHAR, category.getName()))
+            .bind("description", Parameters.in(R2dbcType.VARCHAR, category.getDescription()))
+            .map(CategoryRepository::toCategory)
+            .one();
+    }
+
+    /** Whether a row was deleted; its items go with it (ON DELETE CASCADE). */
+    public Mono<Boolean> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM category WHERE id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated()
+            .map(rows -> rows > 0);
+    }
+
+    static CategorySummary toSummary(Readable row) {
+        return new CategorySummary(
+            row.get("id", Long.class),
+            row.get("name", String.class),
+            row.get("updated_at", LocalDateTime.class));
+    }
+
+    static Category toCategory(Readable row) {
+        Category category = new Category(row.get("name", String.class), row.get("description", String.class));
+        category.setId(row.get("id", Long.class));
+        category.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        category.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return category;
+    }
+}
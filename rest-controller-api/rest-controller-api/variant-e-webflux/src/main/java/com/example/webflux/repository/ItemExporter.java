@@ -0,0 +1,45 @@
+package com.example.webflux.repository;
+
+import com.example.common.io.NdjsonWriter;
+import com.example.common.model.Item;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Streams items as NDJSON from an R2DBC cursor. WebFlux flushes a streaming
+ * body after every element, so rows are encoded in chunks of
+ * {@link NdjsonWriter#FLUSH_EVERY} rather than one line per element.
+ */
+@Component
+public class ItemExporter {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** All items, or those of one category, ordered by id. */
+    public Flux<DataBuffer> export(Long categoryId) {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper);
+        return itemRepository.streamOrderById(categoryId)
+            .buffer(NdjsonWriter.FLUSH_EVERY)
+            .map(rows -> DefaultDataBufferFactory.sharedInstance.wrap(encode(writer, rows)));
+    }
+
+    private static byte[] encode(NdjsonWriter writer, List<Item> rows) {
+        try {
+            return writer.write(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.webflux.repository;
+
+import com.example.common.dto.ItemSummary;
+import com.example.common.model.Item;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Item queries on R2DBC. Offset pages are unordered like the JPA variants'
+ * {@code PageRequest.of(page, size)}; keyset pages seek on the primary key.
+ * List queries take the row type like a Spring Data dynamic projection:
+ * {@link Item}, or {@link ItemSummary} to select only its columns.
+ */
+@Repository
+public class ItemRepository {
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final String COLUMNS = "id, name, description, price, quantity, category_id, created_at, updated_at";
+    private static final String SUMMARY_COLUMNS = "id, name, price, category_id, updated_at";
+
+    private static final RowShape<Item> FULL = new RowShape<>(COLUMNS, ItemRepository::toItem);
+    private static final RowShape<ItemSummary> SUMMARY = new RowShape<>(SUMMARY_COLUMNS, ItemRepository::toSummary);
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public <T> Flux<T> findAll(long offset, int limit, Class<T> type) {
+        RowShape<T> shape = shape(type);
+        return databaseClient.sql("SELECT " + shape.columns() + " FROM item LIMIT :limit OFFSET :offset")
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(shape.mapper())
+            .all();
+    }
+
+    public <T> Flux<T> findAllByCategoryId(Long categoryId, long offset, int limit, Class<T> type) {
+        RowShape<T> shape = shape(type);
+        return databaseClient.sql("SELECT " + shape.columns() + " FROM item WHERE category_id = :categoryId"
+                + " LIMIT :limit OFFSET :offset")
+            .bind("categoryId", categoryId)
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(shape.mapper())
+            .all();
+    }
+
+    // Keyset pagination: seek on the primary key instead of OFFSET
+    public <T> Flux<T> findByIdGreaterThan(long afterId, int limit, Class<T> type) {
+        RowShape<T> shape = shape(type);
+        return databaseClient.sql("SELECT " + shape.columns() + " FROM item WHERE id > :afterId ORDER BY id LIMIT :limit")
+            .bind("afterId", afterId)
+            .bind("limit", limit)
+            .map(shape.mapper())
+            .all();
+    }
+
+    public <T> Flux<T> findByCategoryIdAndIdGreaterThan(Long categoryId, long afterId, int limit, Class<T> type) {
+        RowShape<T> shape = shape(type);
+        return databaseClient.sql("SELECT " + shape.columns() + " FROM item WHERE category_id = :categoryId"
+                + " AND id > :afterId ORDER BY id LIMIT :limit")
+            .bind("categoryId", categoryId)
+            .bind("afterId", afterId)
+            .bind("limit", limit)
+            .map(shape.mapper())
+            .all();
+    }
+
+    /**
+     * All items, or those of one category, ordered by id. Rows are fetched 1000
+     * at a time as the subscriber requests them, so memory stays flat.
+     */
+    public Flux<Item> streamOrderById(Long categoryId) {
+        DatabaseClient.GenericExecuteSpec spec = categoryId != null
+            ? databaseClient.sql("SELECT " + COLUMNS + " FROM item WHERE category_id = :categoryId ORDER BY id")
+                .bind("categoryId", categoryId)
+            : databaseClient.sql("SELECT " + COLUMNS + " FROM item ORDER BY id");
+        return spec
+            .filter(statement -> statement.fetchSize(EXPORT_FETCH_SIZE))
+            .map(ItemRepository::toItem)
+            .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM item")
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    public Mono<Long> countByCategoryId(Long categoryId) {
+        return databaseClient.sql("SELECT count(*) FROM item WHERE category_id = :categoryId")
+            .bind("categoryId", categoryId)
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    public Mono<Item> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM item WHERE id = :id")
+            .bind("id", id)
+            .map(ItemRepository::toItem)
+            .one();
+    }
+
+    public Mono<Item> insert(Item item) {
+        return databaseClient.sql("INSERT INTO item (name, description, price, quantity, category_id)"
+                + " VALUES (:name, :description, :price, :quantity, :categoryId) RETURNING " + COLUMNS)
+            .bind("name", Parameters.in(R2dbcType.VARCHAR, item.getName()))
+            .bind("description", Parameters.in(R2dbcType.VARCHAR, item.getDescription()))
+            .bind("price", Parameters.in(R2dbcType.DECIMAL, item.getPrice()))
+            .bind("quantity", Parameters.in(R2dbcType.INTEGER, item.getQuantity()))
+            .bind("categoryId", Parameters.in(R2dbcType.BIGINT, item.getCategoryId()))
+            .map(ItemRepository::toItem)
+            .one();
+    }
+
+    /**
+     * Replaces the fields of an item in one round-trip; a null category id keeps
+     * the current one. Empty if there is no item with this id.
+     */
+    public Mono<Updated> update(Long id, Item item) {
+        return databaseClient.sql("UPDATE item i SET name = :name, description = :description, price = :price,"
+                + " quantity = :quantity, category_id = COALESCE(:categoryId, previous.category_id)"
+                + " FROM (SELECT id, category_id FROM item WHERE id = :id FOR UPDATE) previous"
+                + " WHERE i.id = previous.id"
+                + " RETURNING i.id, i.name, i.description, i.price, i.quantity, i.category_id,"
+                + " i.created_at, i.updated_at, previous.category_id AS previous_category_id")
+            .bind("id", id)
+            .bind("name", Parameters.in(R2dbcType.VARCHAR, item.getName()))
+            .bind("description", Parameters.in(R2dbcType.VARCHAR, item.getDescription()))
+            .bind("price", Parameters.in(R2dbcType.DECIMAL, item.getPrice()))
+            .bind("quantity", Parameters.in(R2dbcType.INTEGER, item.getQuantity()))
+            .bind("categoryId", Parameters.in(R2dbcType.BIGINT, item.getCategoryId()))
+            .map(row -> new Updated(toItem(row), row.get("previous_category_id", Long.class)))
+            .one();
+    }
+
+    /** Category id of the deleted item, empty if there was none. */
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM item WHERE id = :id RETURNING category_id")
+            .bind("id", id)
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    static Item toItem(Readable row) {
+        Item item = new Item(
+            row.get("name", String.class),
+            row.get("description", String.class),
+            row.get("price", BigDecimal.class),
+            row.get("quantity", Integer.class),
+            row.get("category_id", Long.class));
+        item.setId(row.get("id", Long.class));
+        item.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        item.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return item;
+    }
+
+    static ItemSummary toSummary(Readable row) {
+        return new ItemSummary(
+            row.get("id", Long.class),
+            row.get("name", String.class),
+            row.get("price", BigDecimal.class),
+            row.get("category_id", Long.class),
+            row.get("updated_at", LocalDateTime.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RowShape<T> shape(Class<T> type) {
+        if (type == Item.class) {
+            return (RowShape<T>) FULL;
+        }
+        if (type == ItemSummary.class) {
+            return (RowShape<T>) SUMMARY;
+        }
+        throw new IllegalArgumentException("Unsupported projection: " + type.getName());
+    }
+
+    /** Selected columns and row mapper of one projection. */
+    private record RowShape<T>(String columns, Function<Readable, T> mapper) {
+    }
+
+    /** An updated item and the category it was in before. */
+    public record Updated(Item item, Long previousCategoryId) {
+    }
+}